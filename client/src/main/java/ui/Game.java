@@ -186,7 +186,7 @@ public class Game implements GameHandler {
         }
         var fromRow = 9 - (input.charAt(1) - '0');
         var fromCol = (input.charAt(0) - 'a') + 1;
-        return new ChessPosition(fromRow, fromCol);
+        return ChessPosition.of(fromRow, fromCol);
     }
 
     private String highlightLegalMoves(String position){
@@ -242,10 +242,10 @@ public class Game implements GameHandler {
         for (int i = 0; i < 8; i++) {
             output += EscapeSequences.SET_TEXT_BOLD + (8 - i) + EscapeSequences.RESET_TEXT_BOLD_FAINT + " ";
             for (int j = 0; j < 8; j++) {
-                var piece = board.getPiece(new ChessPosition(i + 1, j + 1));
+                var piece = board.getPiece(ChessPosition.of(i + 1, j + 1));
                 if (highlightPosition != null && highlightPosition.getRow() == i + 1 && highlightPosition.getColumn() == j + 1) {
                     output += EscapeSequences.SET_BG_COLOR_YELLOW + returnPieceChar(piece) + EscapeSequences.SET_BG_COLOR_DARK_GREY;
-                } else if (highlightMoves != null && highlightMoves.contains(new ChessPosition(i + 1, j + 1))) {
+                } else if (highlightMoves != null && highlightMoves.contains(ChessPosition.of(i + 1, j + 1))) {
                     output += EscapeSequences.SET_BG_COLOR_LIGHT_GREEN + returnPieceChar(piece) + EscapeSequences.SET_BG_COLOR_DARK_GREY;
                 } else {
                     output += (i + j) % 2 == 0 ? EscapeSequences.SET_BG_COLOR_LIGHT_BLUE + returnPieceChar(piece) + EscapeSequences.SET_BG_COLOR_DARK_GREY : EscapeSequences.SET_BG_COLOR_BLUE + EscapeSequences.SET_TEXT_COLOR_WHITE + returnPieceChar(piece) + EscapeSequences.SET_TEXT_COLOR_WHITE + EscapeSequences.SET_BG_COLOR_DARK_GREY;
@@ -266,7 +266,7 @@ public class Game implements GameHandler {
         for (int i = 7; i >= 0; i--) {
             output += EscapeSequences.SET_TEXT_BOLD + (8 - i) + EscapeSequences.RESET_TEXT_BOLD_FAINT + " ";
             for (int j = 7; j >= 0; j--) {
-                var piece = board.getPiece(new ChessPosition(i + 1, j + 1));
+                var piece = board.getPiece(ChessPosition.of(i + 1, j + 1));
                 output += (i + j) % 2 == 0 ? EscapeSequences.SET_BG_COLOR_LIGHT_GREEN + returnPieceChar(piece) + EscapeSequences.SET_BG_COLOR_DARK_GREY : EscapeSequences.SET_BG_COLOR_GREEN + EscapeSequences.SET_TEXT_COLOR_WHITE + returnPieceChar(piece) + EscapeSequences.SET_TEXT_COLOR_WHITE + EscapeSequences.SET_BG_COLOR_DARK_GREY;
             }
             output += EscapeSequences.SET_BG_COLOR_DARK_GREY + EscapeSequences.SET_TEXT_BOLD + (8 - i) + EscapeSequences.RESET_TEXT_BOLD_FAINT + "\n";
@@ -185,11 +185,13 @@ public class MemoryDataAccess implements DataAccess{
     public GameData makeMove(int gameID, String authToken, ChessMove move) throws ResponseException {
         //get the game
         var game = games.get(gameID);
-        //make the move
-        try {
-            game.game().makeMove(move);
-        } catch (InvalidMoveException e) {
-            throw new ResponseException(400, "Error: Bad Request");
+        //make the move, one at a time per game. Readers use the game's snapshot so they never wait on this
+        synchronized (game.game()) {
+            try {
+                game.game().makeMove(move);
+            } catch (InvalidMoveException e) {
+                throw new ResponseException(400, "Error: Bad Request");
+            }
         }
         //return the game
         return game;
@@ -0,0 +1,176 @@
+package chess;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Checks large batches of moves for legality across a {@link ForkJoinPool},
+ * for jobs that re-check stored games. Each move is looked up among the
+ * moving piece's legal moves and played with {@link ChessGame#doMove(int)},
+ * so nothing is published or copied per move the way
+ * {@link ChessGame#makeMove(ChessMove)} does.
+ * <p>
+ * The batch is split in halves until each piece covers one 64-bit word of
+ * the result bitmap, so idle threads steal the remaining halves and no two
+ * tasks ever write the same word.
+ */
+public final class BatchValidator {
+
+    /**
+     * The outcome of a batch
+     *
+     * @param valid           one bit per entry, set if every move of that entry was legal
+     * @param firstIllegalPly for each entry the index of its first illegal move, or -1 if there is none
+     * @param moves           moves checked, moves after an entry's first illegal move are not counted
+     * @param nanos           time taken
+     */
+    public record Result(long[] valid, int[] firstIllegalPly, long moves, long nanos) {
+        public boolean isValid(int index) {
+            return (this.valid[index >>> 6] & (1L << index)) != 0;
+        }
+
+        /**
+         * @return the number of entries with only legal moves
+         */
+        public int validCount() {
+            int count = 0;
+            for (long word : this.valid) {
+                count += Long.bitCount(word);
+            }
+            return count;
+        }
+
+        public long movesPerSecond() {
+            return this.nanos == 0 ? 0 : this.moves * 1_000_000_000L / this.nanos;
+        }
+    }
+
+    //Entries per task, one word of the result bitmap
+    private static final int LEAF_SIZE = 64;
+
+    private BatchValidator() {
+    }
+
+    /**
+     * Checks one move in each of many positions. The positions are only read,
+     * so the same game may appear more than once in the batch, but none of
+     * them may be changed until this returns.
+     *
+     * @param positions the position each move is played in
+     * @param moves     one move per position, packed as described in {@link Move}
+     */
+    public static Result validateMoves(ChessGame[] positions, int[] moves, ForkJoinPool pool) {
+        if (positions.length != moves.length) {
+            throw new IllegalArgumentException("Every position needs exactly one move");
+        }
+        return run(moves.length, index -> 1, pool, (index, scratch) -> findLegalMove(positions[index], moves[index], scratch) == Move.NONE ? 0 : -1);
+    }
+
+    /**
+     * Checks whole games, each played from its own start on a copy, stopping
+     * each game at its first illegal move
+     *
+     * @param starts the position each game starts from, or null for the standard starting position
+     * @param games  the moves of each game, packed as described in {@link Move}
+     */
+    public static Result validateGames(ChessGame[] starts, int[][] games, ForkJoinPool pool) {
+        if (starts.length != games.length) {
+            throw new IllegalArgumentException("Every game needs a starting position");
+        }
+        return run(games.length, index -> games[index].length, pool, (index, scratch) -> {
+            ChessGame game = starts[index] == null ? new ChessGame() : new ChessGame(starts[index]);
+            int[] moves = games[index];
+            for (int ply = 0; ply < moves.length; ply++) {
+                int move = findLegalMove(game, moves[ply], scratch);
+                if (move == Move.NONE) {
+                    return ply;
+                }
+                game.doMove(move);
+            }
+            return -1;
+        });
+    }
+
+    //Checks one entry and returns the first illegal ply, or -1 if it is all legal
+    private interface EntryCheck {
+        int firstIllegalPly(int index, MoveList scratch);
+    }
+
+    /**
+     * @param length number of moves in each entry
+     */
+    private static Result run(int size, IntUnaryOperator length, ForkJoinPool pool, EntryCheck check) {
+        long start = System.nanoTime();
+        long[] valid = new long[(size + 63) >>> 6];
+        int[] firstIllegalPly = new int[size];
+        long moves = pool.invoke(new RangeTask(check, length, valid, firstIllegalPly, 0, size));
+        return new Result(valid, firstIllegalPly, moves, System.nanoTime() - start);
+    }
+
+    /**
+     * Finds the generated form of a move (with its flags) among the legal
+     * moves of the team to move, without changing the game
+     *
+     * @return the move to play, or {@link Move#NONE} if it is not legal
+     */
+    private static int findLegalMove(ChessGame game, int move, MoveList scratch) {
+        ChessGame.TeamColor turn = game.getTeamTurn();
+        if (turn == ChessGame.TeamColor.FINISHED) {
+            return Move.NONE;
+        }
+        scratch.clear();
+        MoveGenerator.addLegalMoves(game.getBoard(), turn, game.getCastlingRights(), game.getEnPassantSquare(),
+                Bitboards.bit(Move.from(move)), scratch);
+        int index = scratch.indexOf(move);
+        return index < 0 ? Move.NONE : scratch.get(index);
+    }
+
+    private static final class RangeTask extends RecursiveTask<Long> {
+        private final EntryCheck check;
+        private final IntUnaryOperator length;
+        private final long[] valid;
+        private final int[] firstIllegalPly;
+        private final int from;
+        private final int to;
+
+        RangeTask(EntryCheck check, IntUnaryOperator length, long[] valid, int[] firstIllegalPly, int from, int to) {
+            this.check = check;
+            this.length = length;
+            this.valid = valid;
+            this.firstIllegalPly = firstIllegalPly;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Long compute() {
+            if (this.to - this.from > LEAF_SIZE) {
+                //Split on a word boundary so each bitmap word has one writer
+                int middle = ((this.from + this.to) >>> 1) & -LEAF_SIZE;
+                if (middle <= this.from) {
+                    middle = this.from + LEAF_SIZE;
+                }
+                RangeTask right = new RangeTask(this.check, this.length, this.valid, this.firstIllegalPly, middle, this.to);
+                right.fork();
+                long moves = new RangeTask(this.check, this.length, this.valid, this.firstIllegalPly, this.from, middle).compute();
+                return moves + right.join();
+            }
+            MoveList scratch = new MoveList();
+            long word = 0;
+            long moves = 0;
+            for (int i = this.from; i < this.to; i++) {
+                int illegal = this.check.firstIllegalPly(i, scratch);
+                this.firstIllegalPly[i] = illegal;
+                if (illegal < 0) {
+                    word |= 1L << i;
+                }
+                moves += illegal < 0 ? this.length.applyAsInt(i) : illegal + 1;
+            }
+            if (this.from < this.to) {
+                this.valid[this.from >>> 6] = word;
+            }
+            return moves;
+        }
+    }
+}
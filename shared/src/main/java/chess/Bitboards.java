@@ -0,0 +1,173 @@
+package chess;
+
+/**
+ * Precomputed attack masks and square helpers used by the bitboard
+ * representation of {@link ChessBoard}.
+ * <p>
+ * Squares are numbered 0-63 starting at a1 and moving along each row, so
+ * row r and column c (both 1-8) map to square (r - 1) * 8 + (c - 1).
+ */
+final class Bitboards {
+
+    static final long ROW_1 = 0xFFL;
+    static final long ROW_8 = ROW_1 << 56;
+    static final long COLUMN_A = 0x0101010101010101L;
+    static final long COLUMN_H = COLUMN_A << 7;
+    //b1, a2 and every other square of the same color
+    static final long LIGHT_SQUARES = 0x55AA55AA55AA55AAL;
+
+    static final long[] KNIGHT_ATTACKS = new long[64];
+    static final long[] KING_ATTACKS = new long[64];
+    //Indexed by team color ordinal, then square
+    static final long[][] PAWN_ATTACKS = new long[2][64];
+
+    //Ray directions, the first four point towards higher square numbers
+    private static final int NORTH = 0;
+    private static final int NORTH_EAST = 1;
+    private static final int EAST = 2;
+    private static final int NORTH_WEST = 3;
+    private static final int SOUTH = 4;
+    private static final int SOUTH_WEST = 5;
+    private static final int WEST = 6;
+    private static final int SOUTH_EAST = 7;
+    private static final int[][] DIRECTIONS = {{1, 0}, {1, 1}, {0, 1}, {1, -1}, {-1, 0}, {-1, -1}, {0, -1}, {-1, 1}};
+    private static final long[][] RAYS = new long[8][64];
+    //Squares strictly between two squares on the same row, column or diagonal, otherwise empty
+    static final long[][] BETWEEN = new long[64][64];
+    //The whole row, column or diagonal through two squares, otherwise empty
+    static final long[][] LINE = new long[64][64];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            int row = row(square);
+            int col = column(square);
+            for (int i = -2; i <= 2; i++) {
+                for (int j = -2; j <= 2; j++) {
+                    if (Math.abs(i) != Math.abs(j) && i != 0 && j != 0 && onBoard(row + i, col + j)) {
+                        KNIGHT_ATTACKS[square] |= bit(square(row + i, col + j));
+                    }
+                    if (Math.abs(i) <= 1 && Math.abs(j) <= 1 && (i != 0 || j != 0) && onBoard(row + i, col + j)) {
+                        KING_ATTACKS[square] |= bit(square(row + i, col + j));
+                    }
+                }
+            }
+            for (int j = -1; j <= 1; j += 2) {
+                if (onBoard(row + 1, col + j)) {
+                    PAWN_ATTACKS[ChessGame.TeamColor.WHITE.ordinal()][square] |= bit(square(row + 1, col + j));
+                }
+                if (onBoard(row - 1, col + j)) {
+                    PAWN_ATTACKS[ChessGame.TeamColor.BLACK.ordinal()][square] |= bit(square(row - 1, col + j));
+                }
+            }
+            for (int direction = 0; direction < 8; direction++) {
+                int r = row + DIRECTIONS[direction][0];
+                int c = col + DIRECTIONS[direction][1];
+                while (onBoard(r, c)) {
+                    RAYS[direction][square] |= bit(square(r, c));
+                    r += DIRECTIONS[direction][0];
+                    c += DIRECTIONS[direction][1];
+                }
+            }
+        }
+        for (int square = 0; square < 64; square++) {
+            for (int direction = 0; direction < 8; direction++) {
+                //The opposite direction is always four entries along
+                long line = RAYS[direction][square] | RAYS[(direction + 4) & 7][square] | bit(square);
+                long between = 0L;
+                long ray = RAYS[direction][square];
+                while (ray != 0) {
+                    //Walk outwards from the square, nearest square first
+                    int target = direction < 4 ? Long.numberOfTrailingZeros(ray) : 63 - Long.numberOfLeadingZeros(ray);
+                    ray &= ~bit(target);
+                    BETWEEN[square][target] = between;
+                    LINE[square][target] = line;
+                    between |= bit(target);
+                }
+            }
+        }
+    }
+
+    private Bitboards() {
+    }
+
+    static int square(int row, int col) {
+        return (row - 1) * 8 + (col - 1);
+    }
+
+    static int row(int square) {
+        return (square >>> 3) + 1;
+    }
+
+    static int column(int square) {
+        return (square & 7) + 1;
+    }
+
+    static boolean onBoard(int row, int col) {
+        return row >= 1 && row <= 8 && col >= 1 && col <= 8;
+    }
+
+    static long bit(int square) {
+        return 1L << square;
+    }
+
+    /**
+     * @return the index (0-11) of the bitboard holding pieces of this color and type
+     */
+    static int pieceIndex(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return color.ordinal() * 6 + type.ordinal();
+    }
+
+    static long rookAttacks(int square, long occupied) {
+        return SlidingAttacks.rookAttacks(square, occupied);
+    }
+
+    static long bishopAttacks(int square, long occupied) {
+        return SlidingAttacks.bishopAttacks(square, occupied);
+    }
+
+    /**
+     * Rook attacks found by walking the rays, used to fill the lookup tables in {@link SlidingAttacks}
+     */
+    static long rayRookAttacks(int square, long occupied) {
+        return rayAttacks(NORTH, square, occupied) | rayAttacks(EAST, square, occupied)
+                | rayAttacks(SOUTH, square, occupied) | rayAttacks(WEST, square, occupied);
+    }
+
+    /**
+     * Bishop attacks found by walking the rays, used to fill the lookup tables in {@link SlidingAttacks}
+     */
+    static long rayBishopAttacks(int square, long occupied) {
+        return rayAttacks(NORTH_EAST, square, occupied) | rayAttacks(NORTH_WEST, square, occupied)
+                | rayAttacks(SOUTH_EAST, square, occupied) | rayAttacks(SOUTH_WEST, square, occupied);
+    }
+
+    /**
+     * Gets every square a piece attacks from the given square. Pawns only
+     * attack diagonally, pushes are handled by the move generator.
+     *
+     * @param occupied every occupied square on the board, used to stop sliding pieces
+     * @return bitboard of attacked squares, including squares of either team
+     */
+    static long attacks(ChessPiece.PieceType type, ChessGame.TeamColor color, int square, long occupied) {
+        return switch (type) {
+            case KING -> KING_ATTACKS[square];
+            case QUEEN -> rookAttacks(square, occupied) | bishopAttacks(square, occupied);
+            case BISHOP -> bishopAttacks(square, occupied);
+            case KNIGHT -> KNIGHT_ATTACKS[square];
+            case ROOK -> rookAttacks(square, occupied);
+            case PAWN -> PAWN_ATTACKS[color.ordinal()][square];
+            default -> 0L;
+        };
+    }
+
+    private static long rayAttacks(int direction, int square, long occupied) {
+        long attacks = RAYS[direction][square];
+        long blockers = attacks & occupied;
+        if (blockers != 0) {
+            //The first four directions grow towards higher squares so the closest blocker is the lowest bit
+            int blocker = direction < 4 ? Long.numberOfTrailingZeros(blockers) : 63 - Long.numberOfLeadingZeros(blockers);
+            attacks ^= RAYS[direction][blocker];
+        }
+        return attacks;
+    }
+}
@@ -3,35 +3,69 @@ package chess;
 import java.util.Arrays;
 
 import chess.ChessGame.TeamColor;
+import com.google.gson.annotations.JsonAdapter;
 
 /**
  * A chessboard that can hold and rearrange chess pieces.
  * <p>
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
+ * <p>
+ * Pieces are stored twice: once per square so lookups by position are a
+ * single array read, and once as 12 bitboards (one per team and piece type)
+ * plus occupancy masks so move generation and check detection can work on
+ * whole sets of squares at a time. Both are kept in sync by
+ * {@link #addPiece} and {@link #removePiece}.
  */
+@JsonAdapter(ChessBoardSerializer.class)
 public class ChessBoard {
 
-    private ChessPiece[][] board;
+    //The piece on each square, indexed the same way as the bitboards (a1 = 0, h8 = 63)
+    private final ChessPiece[] squares;
+    //One bitboard per team and piece type, see Bitboards.pieceIndex
+    private final long[] pieces;
+    //Number of pieces in each bitboard, kept alongside so material checks are a few array reads
+    private final int[] counts;
+    //Every square held by each team, indexed by team color ordinal
+    private final long[] teams;
+    private long occupied;
+    //Square of each team's king, or -1 if the team has no king on the board
+    private final int[] kingSquares;
+    //Zobrist key of the pieces on the board, see Zobrist
+    private long key;
+
+    private static final ChessPiece OFF_BOARD = new ChessPiece(TeamColor.WHITE, ChessPiece.PieceType.INVALID);
 
     public ChessBoard() {
-        this.board = new ChessPiece[8][8];        
+        this.squares = new ChessPiece[64];
+        this.pieces = new long[12];
+        this.counts = new int[12];
+        this.teams = new long[2];
+        this.kingSquares = new int[] {-1, -1};
     }
 
     public ChessBoard(ChessBoard board) {
-        this.board = new ChessPiece[8][8];
         //Copy the board
-        for (int i = 0; i < 8; i++) {
-            this.board[i] = Arrays.copyOf(board.board[i], 8);
-        }
+        this.squares = Arrays.copyOf(board.squares, 64);
+        this.pieces = Arrays.copyOf(board.pieces, 12);
+        this.counts = Arrays.copyOf(board.counts, 12);
+        this.teams = Arrays.copyOf(board.teams, 2);
+        this.occupied = board.occupied;
+        this.kingSquares = Arrays.copyOf(board.kingSquares, 2);
+        this.key = board.key;
     }
 
     @Override
     public String toString() {
         StringBuilder builder=new StringBuilder();
-        for (int i = 0; i < 8; i++) {
+        for (int row = 8; row >= 1; row--) {
             //display the board with | | between each piece and if the piece is null display a space
-            builder.append(Arrays.toString(this.board[i]).replace("null", " ").replace(",", " |").replace("[", "| ").replace("]", " |\n"));
+            builder.append("| ");
+            for (int col = 1; col <= 8; col++) {
+                ChessPiece piece = this.squares[Bitboards.square(row, col)];
+                builder.append(piece == null ? " " : piece.toString());
+                builder.append(col < 8 ? " | " : " |\n");
+            }
         }
         return builder.toString();
     }
@@ -43,12 +77,15 @@ public class ChessBoard {
      * @param piece    the piece to add
      */
     public void addPiece(ChessPosition position, ChessPiece piece) {
-        //Get the row and column of the position of the piece that I am adding to the board
-        int row = position.getRow(); 
-        int col = position.getColumn();
+        //Get the square of the position of the piece that I am adding to the board
+        int square = position.getSquare();
 
-        //Add the piece to the board
-        this.board[8 - row][col - 1] = piece;
+        //Add the piece to the board, replacing anything already there
+        clearSquare(square);
+        if (piece != null) {
+            //Store the shared instance so boards never hold their own piece objects
+            setSquare(square, ChessPiece.of(piece.getTeamColor(), piece.getPieceType()));
+        }
     }
 
     @Override
@@ -56,18 +93,13 @@ public class ChessBoard {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         ChessBoard that=(ChessBoard) o;
-        //since the board is a 2d array I need to use the Arrays.equals method twice
-        for (int i = 0; i < 8; i++) {
-            if (!Arrays.equals(this.board[i], that.board[i])) {
-                return false;
-            }
-        }
-        return true;
+        //Different keys always mean different boards, equal keys still need the bitboards compared
+        return this.key == that.key && Arrays.equals(this.pieces, that.pieces);
     }
 
     @Override
     public int hashCode() {
-        return Arrays.hashCode(board);
+        return Long.hashCode(this.key);
     }
 
     /**
@@ -76,41 +108,31 @@ public class ChessBoard {
      * @param position The position to get the piece from
      * @return Either the piece at the position, or null if no piece is at that
      * position
-     * @throws InvalidMoveException 
+     * @throws InvalidMoveException
      */
     public ChessPiece getPiece(ChessPosition position) {
-        //Get the row and column of the position of the piece that I am getting from the board
-        int row = position.getRow(); 
-        int col = position.getColumn();
+        //Get the square of the position of the piece that I am getting from the board
+        int square = position.getSquare();
 
         //Check if the position is valid
-        if (row < 1 || row > 8 || col < 1 || col > 8) {
-            return new ChessPiece(TeamColor.WHITE, ChessPiece.PieceType.INVALID);
-        }
-
-        //Get the piece at the position
-        ChessPiece chessPiece = this.board[8 - row][col - 1];
-
-        //Check if there is a piece at the position if not return null
-        if (chessPiece == null) {
-            return null;
+        if (square < 0) {
+            return OFF_BOARD;
         }
 
-        //Return the piece
-        return chessPiece;
+        //Return the piece at the position, or null if the square is empty
+        return this.squares[square];
     }
 
     public void removePiece(ChessPosition position) {
-        //Get the row and column of the position of the piece that I am removing from the board
-        int row = position.getRow(); 
-        int col = position.getColumn();
+        //Get the square of the position of the piece that I am removing from the board
+        int square = position.getSquare();
 
-        if (row < 1 || row > 8 || col < 1 || col > 8) {
+        if (square < 0) {
             return ;
         }
 
         //Remove the piece from the board
-        this.board[8 - row][col - 1] = null;
+        clearSquare(square);
     }
 
     /**
@@ -119,36 +141,211 @@ public class ChessBoard {
      */
     public void resetBoard() {
         //Clear all the pieces from the board
-        for (int i = 0; i < 8; i++) {
-            Arrays.fill(this.board[i], null);
+        Arrays.fill(this.squares, null);
+        Arrays.fill(this.pieces, 0L);
+        Arrays.fill(this.counts, 0);
+        Arrays.fill(this.teams, 0L);
+        this.occupied = 0L;
+        Arrays.fill(this.kingSquares, -1);
+        this.key = 0L;
+
+        ChessPiece.PieceType[] backRow = {
+                ChessPiece.PieceType.ROOK, ChessPiece.PieceType.KNIGHT, ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.QUEEN,
+                ChessPiece.PieceType.KING, ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.KNIGHT, ChessPiece.PieceType.ROOK
+        };
+        for (int col = 1; col <= 8; col++) {
+            //Add all the white pieces to the board
+            setSquare(Bitboards.square(1, col), ChessPiece.of(TeamColor.WHITE, backRow[col - 1]));
+            setSquare(Bitboards.square(2, col), ChessPiece.of(TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+            //Add all the black pieces to the board
+            setSquare(Bitboards.square(8, col), ChessPiece.of(TeamColor.BLACK, backRow[col - 1]));
+            setSquare(Bitboards.square(7, col), ChessPiece.of(TeamColor.BLACK, ChessPiece.PieceType.PAWN));
         }
+    }
+
+    /**
+     * @return the piece on a square index (0-63), or null if it is empty
+     */
+    public ChessPiece pieceAt(int square) {
+        return this.squares[square];
+    }
+
+    /**
+     * @return bitboard of every piece of the given team and type
+     */
+    public long pieces(TeamColor color, ChessPiece.PieceType type) {
+        return this.pieces[Bitboards.pieceIndex(color, type)];
+    }
+
+    /**
+     * @return bitboard of every square held by the given team
+     */
+    long teamOccupancy(TeamColor color) {
+        return this.teams[color.ordinal()];
+    }
 
-        //Add all the white pieces to the board
-        this.board[7][0] = new ChessPiece(TeamColor.WHITE, ChessPiece.PieceType.ROOK);
-        this.board[7][1] = new ChessPiece(TeamColor.WHITE, ChessPiece.PieceType.KNIGHT);
-        this.board[7][2] = new ChessPiece(TeamColor.WHITE, ChessPiece.PieceType.BISHOP);
-        this.board[7][3] = new ChessPiece(TeamColor.WHITE, ChessPiece.PieceType.QUEEN);
-        this.board[7][4] = new ChessPiece(TeamColor.WHITE, ChessPiece.PieceType.KING);
-        this.board[7][5] = new ChessPiece(TeamColor.WHITE, ChessPiece.PieceType.BISHOP);
-        this.board[7][6] = new ChessPiece(TeamColor.WHITE, ChessPiece.PieceType.KNIGHT);
-        this.board[7][7] = new ChessPiece(TeamColor.WHITE, ChessPiece.PieceType.ROOK);
-        for (int i = 0; i < 8; i++) {
-            this.board[6][i] = new ChessPiece(TeamColor.WHITE, ChessPiece.PieceType.PAWN);
+    /**
+     * @return bitboard of every occupied square
+     */
+    long occupancy() {
+        return this.occupied;
+    }
+
+    /**
+     * @return Zobrist key of the pieces on the board, kept up to date as pieces are added and removed
+     */
+    long pieceKey() {
+        return this.key;
+    }
+
+    /**
+     * @return the square index (0-63) of the team's king, or -1 if it has none
+     */
+    int kingSquare(TeamColor color) {
+        return this.kingSquares[color.ordinal()];
+    }
+
+    /**
+     * Determines if any piece of the given team attacks a position
+     *
+     * @param position the position to check
+     * @param byColor  the team that might be attacking it
+     * @return True if a piece of byColor could capture on that position
+     */
+    public boolean isSquareAttacked(ChessPosition position, TeamColor byColor) {
+        int square = position.getSquare();
+        return square >= 0 && isSquareAttacked(square, byColor);
+    }
+
+    /**
+     * Looks outwards from the square for each kind of piece: a piece attacks
+     * the square exactly when the same piece placed on the square would attack
+     * it back (pawns use the other team's capture direction). This checks a
+     * handful of masks instead of generating the attacking team's moves.
+     */
+    boolean isSquareAttacked(int square, TeamColor byColor) {
+        int base = byColor.ordinal() * 6;
+        long[] p = this.pieces;
+        if ((Bitboards.PAWN_ATTACKS[ChessGame.opponent(byColor).ordinal()][square] & p[base + ChessPiece.PieceType.PAWN.ordinal()]) != 0
+                || (Bitboards.KNIGHT_ATTACKS[square] & p[base + ChessPiece.PieceType.KNIGHT.ordinal()]) != 0
+                || (Bitboards.KING_ATTACKS[square] & p[base + ChessPiece.PieceType.KING.ordinal()]) != 0) {
+            return true;
         }
+        long queens = p[base + ChessPiece.PieceType.QUEEN.ordinal()];
+        long diagonal = p[base + ChessPiece.PieceType.BISHOP.ordinal()] | queens;
+        if (diagonal != 0 && (Bitboards.bishopAttacks(square, this.occupied) & diagonal) != 0) {
+            return true;
+        }
+        long straight = p[base + ChessPiece.PieceType.ROOK.ordinal()] | queens;
+        return straight != 0 && (Bitboards.rookAttacks(square, this.occupied) & straight) != 0;
+    }
 
-        //Add all the black pieces to the board
-        this.board[0][0] = new ChessPiece(TeamColor.BLACK, ChessPiece.PieceType.ROOK);
-        this.board[0][1] = new ChessPiece(TeamColor.BLACK, ChessPiece.PieceType.KNIGHT);
-        this.board[0][2] = new ChessPiece(TeamColor.BLACK, ChessPiece.PieceType.BISHOP);
-        this.board[0][3] = new ChessPiece(TeamColor.BLACK, ChessPiece.PieceType.QUEEN);
-        this.board[0][4] = new ChessPiece(TeamColor.BLACK, ChessPiece.PieceType.KING);
-        this.board[0][5] = new ChessPiece(TeamColor.BLACK, ChessPiece.PieceType.BISHOP);
-        this.board[0][6] = new ChessPiece(TeamColor.BLACK, ChessPiece.PieceType.KNIGHT);
-        this.board[0][7] = new ChessPiece(TeamColor.BLACK, ChessPiece.PieceType.ROOK);
-        for (int i = 0; i < 8; i++) {
-            this.board[1][i] = new ChessPiece(TeamColor.BLACK, ChessPiece.PieceType.PAWN);
+    /**
+     * @return the number of pieces of this team and type on the board
+     */
+    public int count(TeamColor color, ChessPiece.PieceType type) {
+        return this.counts[Bitboards.pieceIndex(color, type)];
+    }
+
+    /**
+     * Checks whether neither team has enough pieces left to ever checkmate:
+     * bare kings, a single knight or bishop, or only bishops that all stand
+     * on squares of the same color.
+     *
+     * @return True if no sequence of moves can end in checkmate
+     */
+    boolean hasInsufficientMaterial() {
+        int[] c = this.counts;
+        int white = 0;
+        int black = 6;
+        int pawns = ChessPiece.PieceType.PAWN.ordinal();
+        int rooks = ChessPiece.PieceType.ROOK.ordinal();
+        int queens = ChessPiece.PieceType.QUEEN.ordinal();
+        //A pawn can always promote, and a rook or queen can always force mate
+        if ((c[white + pawns] | c[black + pawns] | c[white + rooks] | c[black + rooks] | c[white + queens] | c[black + queens]) != 0) {
+            return false;
+        }
+        int knights = c[white + ChessPiece.PieceType.KNIGHT.ordinal()] + c[black + ChessPiece.PieceType.KNIGHT.ordinal()];
+        int bishops = c[white + ChessPiece.PieceType.BISHOP.ordinal()] + c[black + ChessPiece.PieceType.BISHOP.ordinal()];
+        if (knights + bishops <= 1) {
+            return true;
         }
+        if (knights > 0) {
+            return false;
+        }
+        long allBishops = this.pieces[white + ChessPiece.PieceType.BISHOP.ordinal()] | this.pieces[black + ChessPiece.PieceType.BISHOP.ordinal()];
+        return (allBishops & Bitboards.LIGHT_SQUARES) == 0 || (allBishops & ~Bitboards.LIGHT_SQUARES) == 0;
     }
 
+    /**
+     * Same query as {@link #isSquareAttacked(int, TeamColor)} but returns
+     * every attacker, using the given occupancy to stop sliding pieces
+     *
+     * @return bitboard of the squares of byColor's pieces that attack the square
+     */
+    long attackersTo(int square, TeamColor byColor, long occupied) {
+        int base = byColor.ordinal() * 6;
+        long[] p = this.pieces;
+        long queens = p[base + ChessPiece.PieceType.QUEEN.ordinal()];
+        return (Bitboards.PAWN_ATTACKS[ChessGame.opponent(byColor).ordinal()][square] & p[base + ChessPiece.PieceType.PAWN.ordinal()])
+                | (Bitboards.KNIGHT_ATTACKS[square] & p[base + ChessPiece.PieceType.KNIGHT.ordinal()])
+                | (Bitboards.KING_ATTACKS[square] & p[base + ChessPiece.PieceType.KING.ordinal()])
+                | (Bitboards.bishopAttacks(square, occupied) & (p[base + ChessPiece.PieceType.BISHOP.ordinal()] | queens))
+                | (Bitboards.rookAttacks(square, occupied) & (p[base + ChessPiece.PieceType.ROOK.ordinal()] | queens));
+    }
+
+    /**
+     * Puts a piece on an empty square index (0-63)
+     */
+    void placeAt(int square, ChessPiece piece) {
+        setSquare(square, piece);
+    }
+
+    /**
+     * Removes whatever piece is on a square index (0-63)
+     *
+     * @return the removed piece, or null if the square was already empty
+     */
+    ChessPiece removeAt(int square) {
+        ChessPiece piece = this.squares[square];
+        clearSquare(square);
+        return piece;
+    }
 
+    private void setSquare(int square, ChessPiece piece) {
+        long bit = Bitboards.bit(square);
+        int pieceIndex = Bitboards.pieceIndex(piece.getTeamColor(), piece.getPieceType());
+        this.squares[square] = piece;
+        this.pieces[pieceIndex] |= bit;
+        this.counts[pieceIndex]++;
+        this.key ^= Zobrist.piece(pieceIndex, square);
+        this.teams[piece.getTeamColor().ordinal()] |= bit;
+        this.occupied |= bit;
+        if (piece.getPieceType() == ChessPiece.PieceType.KING) {
+            updateKingSquare(piece.getTeamColor());
+        }
+    }
+
+    private void clearSquare(int square) {
+        ChessPiece piece = this.squares[square];
+        if (piece == null) {
+            return;
+        }
+        long bit = Bitboards.bit(square);
+        int pieceIndex = Bitboards.pieceIndex(piece.getTeamColor(), piece.getPieceType());
+        this.squares[square] = null;
+        this.pieces[pieceIndex] &= ~bit;
+        this.counts[pieceIndex]--;
+        this.key ^= Zobrist.piece(pieceIndex, square);
+        this.teams[piece.getTeamColor().ordinal()] &= ~bit;
+        this.occupied &= ~bit;
+        if (piece.getPieceType() == ChessPiece.PieceType.KING) {
+            updateKingSquare(piece.getTeamColor());
+        }
+    }
+
+    private void updateKingSquare(TeamColor color) {
+        long kings = pieces(color, ChessPiece.PieceType.KING);
+        this.kingSquares[color.ordinal()] = kings == 0 ? -1 : Long.numberOfTrailingZeros(kings);
+    }
 }
@@ -0,0 +1,86 @@
+package chess;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonDeserializationContext;
+import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonSerializationContext;
+import com.google.gson.JsonSerializer;
+
+import java.lang.reflect.Type;
+
+/**
+ * Converts a {@link ChessBoard} to and from JSON.
+ * <p>
+ * The board is written as a "board" array of 8 rows (row 8 first), each an
+ * 8 character string with one letter per piece (see {@link ChessPiece#symbol()})
+ * and a space for empty squares. That is about 100 bytes a board, where
+ * writing every piece as an object took a few kilobytes.
+ * <p>
+ * Rows written as arrays of piece objects (null for empty squares), the
+ * layout games were stored in before, can still be read. Reading goes
+ * through {@link ChessBoard#addPiece} so the bitboards are rebuilt and the
+ * shared piece instances are used for every stored or received game.
+ */
+class ChessBoardSerializer implements JsonSerializer<ChessBoard>, JsonDeserializer<ChessBoard> {
+
+    @Override
+    public JsonElement serialize(ChessBoard board, Type type, JsonSerializationContext context) {
+        JsonArray rows = new JsonArray();
+        char[] row = new char[8];
+        for (int r = 8; r >= 1; r--) {
+            for (int col = 1; col <= 8; col++) {
+                ChessPiece piece = board.getPiece(ChessPosition.of(r, col));
+                row[col - 1] = piece == null ? ' ' : piece.symbol();
+            }
+            rows.add(new String(row));
+        }
+        JsonObject json = new JsonObject();
+        json.add("board", rows);
+        return json;
+    }
+
+    @Override
+    public ChessBoard deserialize(JsonElement json, Type type, JsonDeserializationContext context) throws JsonParseException {
+        JsonArray rows = json.getAsJsonObject().getAsJsonArray("board");
+        if (rows == null || rows.size() != 8) {
+            throw new JsonParseException("A chess board needs 8 rows");
+        }
+        ChessBoard board = new ChessBoard();
+        for (int i = 0; i < 8; i++) {
+            JsonElement row = rows.get(i);
+            if (row.isJsonArray()) {
+                readPieceObjects(board, 8 - i, row.getAsJsonArray(), context);
+            }
+            else {
+                readSymbols(board, 8 - i, row.getAsString());
+            }
+        }
+        return board;
+    }
+
+    private void readSymbols(ChessBoard board, int row, String symbols) {
+        for (int j = 0; j < 8 && j < symbols.length(); j++) {
+            char symbol = symbols.charAt(j);
+            if (symbol == ' ') {
+                continue;
+            }
+            ChessPiece piece = ChessPiece.fromSymbol(symbol);
+            if (piece == null) {
+                throw new JsonParseException("Unknown piece '" + symbol + "'");
+            }
+            board.addPiece(ChessPosition.of(row, j + 1), piece);
+        }
+    }
+
+    private void readPieceObjects(ChessBoard board, int row, JsonArray columns, JsonDeserializationContext context) {
+        for (int j = 0; j < 8 && j < columns.size(); j++) {
+            ChessPiece piece = context.deserialize(columns.get(j), ChessPiece.class);
+            if (piece != null) {
+                board.addPiece(ChessPosition.of(row, j + 1), piece);
+            }
+        }
+    }
+}
@@ -1,12 +1,10 @@
 package chess;
 
-import java.util.ArrayList;
+import com.google.gson.annotations.JsonAdapter;
+
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashSet;
-import java.util.List;
-import java.util.Objects;
 import java.util.Set;
 
 /**
@@ -15,17 +13,92 @@ import java.util.Set;
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
  */
+@JsonAdapter(ChessGameSerializer.class)
 public class ChessGame {
 
+    /**
+     * Castling rights bits, a team loses a right once its king or that rook
+     * moves or the rook is taken
+     */
+    static final int WHITE_KINGSIDE = 1;
+    static final int WHITE_QUEENSIDE = 2;
+    static final int BLACK_KINGSIDE = 4;
+    static final int BLACK_QUEENSIDE = 8;
+    private static final int ALL_CASTLING = 15;
+
+    //Castling rights that survive a move from or to each square
+    private static final int[] CASTLING_KEPT = new int[64];
+
+    static {
+        Arrays.fill(CASTLING_KEPT, ALL_CASTLING);
+        CASTLING_KEPT[0] &= ~WHITE_QUEENSIDE;
+        CASTLING_KEPT[4] &= ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+        CASTLING_KEPT[7] &= ~WHITE_KINGSIDE;
+        CASTLING_KEPT[56] &= ~BLACK_QUEENSIDE;
+        CASTLING_KEPT[60] &= ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+        CASTLING_KEPT[63] &= ~BLACK_KINGSIDE;
+    }
+
     private ChessBoard board;
     private TeamColor turn;
-    
+    private int castlingRights;
+    //Square a pawn can take en passant on, or -1. Only set when an enemy pawn is next to the pawn that moved two squares
+    private int enPassantSquare = -1;
+    //Moves since the last capture or pawn move, for the fifty move rule
+    private int halfmoveClock;
+    private int fullmoveNumber = 1;
+
+    //Undo stack for doMove/undoMove, one entry per move that can still be taken back.
+    //These are working state only so they are not saved with the game.
+    //Only about the last MAX_TAKEBACKS moves made with makeMove are kept, so a long game does not grow the stack.
+    private static final int MAX_TAKEBACKS = 64;
+    private transient int undoCount;
+    private transient int[] undoMoves = new int[16];
+    private transient ChessPiece[] undoMoved = new ChessPiece[16];
+    private transient ChessPiece[] undoCaptured = new ChessPiece[16];
+    private transient TeamColor[] undoTurn = new TeamColor[16];
+    //Castling rights, en passant square and halfmove clock before each move, packed by packState
+    private transient int[] undoState = new int[16];
+    //Scratch buffer for checking moves of a single piece
+    private transient MoveList pieceMoveList = new MoveList();
+    //Keys of the positions before each move played, oldest first, for finding repeated positions.
+    //Only the positions since the last capture or pawn move are saved with the game.
+    private transient long[] keyHistory = new long[16];
+    private transient int keyCount;
+    //Latest published copy of the game for other threads, replaced by makeMove and the setters
+    private transient volatile GameSnapshot snapshot;
+    //Undo entries up to the last makeMove, taking one of these back changes the published position
+    private transient int publishedUndoCount;
+    //Status of the position with statusKey, so it is only worked out once per move
+    private transient GameStatus status;
+    private transient long statusKey;
 
     public ChessGame() {
         //Implement the chess board
+        turn = TeamColor.WHITE;
         this.board = new ChessBoard();
         setBoard(board);
-        turn = TeamColor.WHITE;
+    }
+
+    /**
+     * Creates an independent copy of another game's board and turn, so the
+     * copy can be played on (for example by another thread) without touching
+     * the original. Moves that could be undone on the original are not copied.
+     *
+     * @param game the game to copy
+     */
+    public ChessGame(ChessGame game) {
+        this.board = new ChessBoard(game.board);
+        this.turn = game.turn;
+        this.castlingRights = game.castlingRights;
+        this.enPassantSquare = game.enPassantSquare;
+        this.halfmoveClock = game.halfmoveClock;
+        this.fullmoveNumber = game.fullmoveNumber;
+        this.keyHistory = Arrays.copyOf(game.keyHistory, Math.max(game.keyCount, 16));
+        this.keyCount = game.keyCount;
+        this.status = game.status;
+        this.statusKey = game.statusKey;
+        this.snapshot = GameSnapshot.of(this, 0);
     }
 
     /**
@@ -42,6 +115,8 @@ public class ChessGame {
      */
     public void setTeamTurn(TeamColor team) {
         this.turn = team;
+        this.status = null;
+        publishSnapshot();
     }
 
     /**
@@ -53,6 +128,31 @@ public class ChessGame {
         FINISHED
     }
 
+    /**
+     * The state of a game for the team whose turn it is
+     */
+    public enum GameStatus {
+        ONGOING,
+        CHECK,
+        CHECKMATE,
+        STALEMATE,
+        //The same position came up for the third time
+        DRAW_BY_REPETITION,
+        //Fifty moves by each team without a capture or a pawn move
+        DRAW_BY_FIFTY_MOVES,
+        //Neither team has the pieces left to checkmate
+        DRAW_BY_INSUFFICIENT_MATERIAL,
+        //The turn was set to FINISHED, for example when a player resigned
+        FINISHED
+    }
+
+    /**
+     * @return the team playing against the given team
+     */
+    static TeamColor opponent(TeamColor team) {
+        return team == TeamColor.WHITE ? TeamColor.BLACK : TeamColor.WHITE;
+    }
+
     /**
      * Gets a valid moves for a piece at the given location
      *
@@ -64,41 +164,41 @@ public class ChessGame {
         //Get the piece at the start position
         ChessPiece piece = this.board.getPiece(startPosition);
         //If there is no piece at the start position return null
-        if (piece == null) {
+        if (piece == null || piece.getPieceType() == ChessPiece.PieceType.INVALID) {
             return null;
         }
         //If there is a piece at the start position return the valid moves for that piece
         else {
-            //For each valid move check if it puts the king in check if so remove it from the collection
-            Collection<ChessMove> validMoves = piece.pieceMoves(this.board, startPosition);
-            //If there are no valid moves return null
-            if (validMoves.size() == 0) {
-                return null;
+            MoveList moves = this.pieceMoveList;
+            moves.clear();
+            MoveGenerator.addLegalMoves(this.board, piece.getTeamColor(), this.castlingRights, enPassantSquareFor(piece.getTeamColor()),
+                    Bitboards.bit(startPosition.getSquare()), moves);
+            if (moves.isEmpty()) {
+                //A piece that could move but would leave its king in check gets an empty set, one that cannot move at all gets null
+                MoveGenerator.addPieceMoves(this.board, piece.getPieceType(), piece.getTeamColor(), startPosition.getSquare(), moves);
+                return moves.isEmpty() ? null : new HashSet<>();
             }
-            //If there are valid moves return them
-            else {
-                //Copy the valid moves into a new collection for iteration
-                Collection<ChessMove> validMovesCopy = new ArrayList<>(validMoves);
-                ChessBoard boardCopy = new ChessBoard(this.board);
-                //check if the king is in check given each move and remove the move if it puts the king in check
-                for (ChessMove move : validMovesCopy) {
-                    //Restore the board to the original board using the copy
-                    this.board = new ChessBoard(boardCopy);
-                    //Make the move
-                    this.board.addPiece(move.getEndPosition(), piece);
-                    this.board.removePiece(move.getStartPosition());
-                    //Check if the king is in check
-                    if (this.isInCheck(piece.getTeamColor())) {
-                        validMoves.remove(move);
-                    }                    
-                }
-                //Restore the board to the original board
-                this.board = new ChessBoard(boardCopy);
-                Set<ChessMove> validMovesSet = new HashSet<>(validMoves);
-                return validMovesSet;
-
+            //Only build ChessMoves for the moves we return
+            Set<ChessMove> validMovesSet = new HashSet<>();
+            for (int i = 0; i < moves.size(); i++) {
+                validMovesSet.add(Move.toChessMove(moves.get(i), startPosition));
             }
+            return validMovesSet;
+        }
+    }
+
+    /**
+     * Fills a list with every legal move for the team whose turn it is. The
+     * list is cleared first, so one list can be reused for every position.
+     *
+     * @param moves list to receive the moves, packed as described in {@link Move}
+     */
+    public void legalMoves(MoveList moves) {
+        moves.clear();
+        if (this.turn == TeamColor.FINISHED) {
+            return;
         }
+        MoveGenerator.addLegalMoves(this.board, this.turn, this.castlingRights, this.enPassantSquare, -1L, moves);
     }
 
     /**
@@ -114,48 +214,215 @@ public class ChessGame {
         if (piece == null) {
             throw new InvalidMoveException("There is no piece at the start position");
         }
+        //Moves to or from positions off the board are never valid
+        else if (piece.getPieceType() == ChessPiece.PieceType.INVALID || move.getEndPosition().getSquare() < 0) {
+            throw new InvalidMoveException("The move is not valid");
+        }
         //If there is a piece at the start position check if the move is valid
         else {
-            //Get the valid moves for the piece
-            Collection<ChessMove> validMoves = piece.pieceMoves(this.board, move.getStartPosition());
+            //Find the move among the piece's legal moves
+            int packedMove = Move.fromChessMove(move);
+            //The next snapshot can only be built from the last one if nothing has changed since it was taken
+            GameSnapshot previous = this.snapshot;
+            boolean snapshotCurrent = previous != null && previous.getTeamTurn() == this.turn && previous.positionKey() == positionKey();
+            MoveList moves = this.pieceMoveList;
+            moves.clear();
+            MoveGenerator.addLegalMoves(this.board, piece.getTeamColor(), this.castlingRights, enPassantSquareFor(piece.getTeamColor()),
+                    Bitboards.bit(Move.from(packedMove)), moves);
+            int index = moves.indexOf(packedMove);
             //If the move is not valid throw an exception
-            if (!validMoves.contains(move)) {
+            if (index < 0) {
                 throw new InvalidMoveException("The move is not valid");
             }
             //Check if it is the correct teams turn
             else if (piece.getTeamColor() != this.turn) {
                 throw new InvalidMoveException("It is not this teams turn");
             }
-            //If the move is valid make the move
-            else {
-                //If the move is a pawn promotion promote the pawn
-                if (move.getPromotionPiece() != null) {
-                    this.board.addPiece(move.getEndPosition(), new ChessPiece(piece.getTeamColor(), move.getPromotionPiece()));
-                    this.board.removePiece(move.getStartPosition());
-                }
-                else{
-                    //Make the move
-                    this.board.addPiece(move.getEndPosition(), piece);
-                    this.board.removePiece(move.getStartPosition());
-                }                
-                //Check if the king is in check
-                if (this.isInCheck(piece.getTeamColor())) {
-                    //Undo the move
-                    this.board.addPiece(move.getStartPosition(), piece);
-                    this.board.removePiece(move.getEndPosition());
-                    throw new InvalidMoveException("The move is not valid");
-                }
-                //If the king is not in check change the turn
-                else {
-                    if (this.turn == TeamColor.WHITE) {
-                        this.turn = TeamColor.BLACK;
-                    }
-                    else {
-                        this.turn = TeamColor.WHITE;
-                    }
-                }
+            //Make the move, this also promotes pawns and changes the turn
+            int played = moves.get(index);
+            doMove(played);
+            if (this.undoCount > 2 * MAX_TAKEBACKS) {
+                dropOldestMoves(this.undoCount - MAX_TAKEBACKS);
+            }
+            this.publishedUndoCount = this.undoCount;
+            //Work out the new position's status now, every player and observer will ask for it
+            GameStatus newStatus = getStatus();
+            this.snapshot = snapshotCurrent ? previous.next(this, played, newStatus) : GameSnapshot.of(this, previous == null ? 0 : previous.getVersion() + 1);
+        }
+    }
+
+    /**
+     * Plays a move on the board without checking that it is valid, then passes
+     * the turn to the other team. Everything needed to take the move back is
+     * kept on an undo stack, so the board can be restored in place with
+     * {@link #undoMove()} instead of being copied. Moves played this way are
+     * working state for searches and are not published to {@link #snapshot()}.
+     *
+     * @param move chess move to play, the start position must hold a piece
+     */
+    public void doMove(ChessMove move) {
+        doMove(Move.fromChessMove(move));
+    }
+
+    /**
+     * Same as {@link #doMove(ChessMove)} for a move packed as described in {@link Move}
+     */
+    public void doMove(int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        ChessPiece piece = this.board.pieceAt(from);
+        if (piece == null) {
+            throw new IllegalArgumentException("There is no piece at the start position");
+        }
+        ChessPiece.PieceType type = piece.getPieceType();
+        //Work out castling and en passant from the board, so moves built from a ChessMove play the same as generated ones
+        if (type == ChessPiece.PieceType.KING && Math.abs(to - from) == 2) {
+            move |= Move.CASTLE;
+        }
+        else if (type == ChessPiece.PieceType.PAWN && to == this.enPassantSquare) {
+            move |= Move.EN_PASSANT | Move.CAPTURE;
+        }
+        if (this.undoCount == this.undoMoves.length) {
+            growUndoStack();
+        }
+        int index = this.undoCount++;
+        this.undoMoves[index] = move;
+        this.undoMoved[index] = piece;
+        this.undoTurn[index] = this.turn;
+        this.undoState[index] = packState();
+        pushKey(positionKey());
+        this.status = null;
+
+        boolean white = piece.getTeamColor() == TeamColor.WHITE;
+        //An en passant capture takes the pawn beside the start square, not one on the end square
+        int captureSquare = (move & Move.EN_PASSANT) != 0 ? to + (white ? -8 : 8) : to;
+        ChessPiece captured = this.board.removeAt(captureSquare);
+        this.undoCaptured[index] = captured;
+        this.board.removeAt(from);
+        //If the move is a pawn promotion promote the pawn
+        ChessPiece.PieceType promotion = Move.promotion(move);
+        if (promotion != null) {
+            this.board.placeAt(to, ChessPiece.of(piece.getTeamColor(), promotion));
+        }
+        else {
+            this.board.placeAt(to, piece);
+        }
+        //When castling the rook jumps to the square the king passed over
+        if ((move & Move.CASTLE) != 0) {
+            int rookFrom = to > from ? from + 3 : from - 4;
+            this.board.placeAt((from + to) / 2, this.board.removeAt(rookFrom));
+        }
+
+        this.castlingRights &= CASTLING_KEPT[from] & CASTLING_KEPT[to];
+        this.halfmoveClock = type == ChessPiece.PieceType.PAWN || captured != null ? 0 : this.halfmoveClock + 1;
+        if (this.turn == TeamColor.BLACK) {
+            this.fullmoveNumber++;
+        }
+        this.enPassantSquare = -1;
+        if (type == ChessPiece.PieceType.PAWN && Math.abs(to - from) == 16) {
+            int passed = (from + to) / 2;
+            //Only remember the square if an enemy pawn is there to use it, so equal positions keep equal keys
+            if ((Bitboards.PAWN_ATTACKS[piece.getTeamColor().ordinal()][passed] & this.board.pieces(white ? TeamColor.BLACK : TeamColor.WHITE, ChessPiece.PieceType.PAWN)) != 0) {
+                this.enPassantSquare = passed;
             }
         }
+        this.turn = opponent(this.turn);
+    }
+
+    /**
+     * Takes back the last move played with {@link #doMove(ChessMove)} or
+     * {@link #makeMove(ChessMove)}, restoring the captured piece, the turn
+     * and the castling, en passant and clock state. Taking back a move made
+     * with makeMove publishes a new {@link #snapshot()}. Only the last 64 or
+     * more moves made with makeMove can be taken back.
+     */
+    public void undoMove() {
+        if (this.undoCount == 0) {
+            throw new IllegalStateException("There is no move to undo");
+        }
+        int index = --this.undoCount;
+        int move = this.undoMoves[index];
+        int from = Move.from(move);
+        int to = Move.to(move);
+        ChessPiece moved = this.undoMoved[index];
+        this.board.removeAt(to);
+        this.board.placeAt(from, moved);
+        if ((move & Move.CASTLE) != 0) {
+            int rookFrom = to > from ? from + 3 : from - 4;
+            this.board.placeAt(rookFrom, this.board.removeAt((from + to) / 2));
+        }
+        if (this.undoCaptured[index] != null) {
+            int captureSquare = (move & Move.EN_PASSANT) != 0 ? to + (moved.getTeamColor() == TeamColor.WHITE ? -8 : 8) : to;
+            this.board.placeAt(captureSquare, this.undoCaptured[index]);
+        }
+        this.turn = this.undoTurn[index];
+        if (this.turn == TeamColor.BLACK) {
+            this.fullmoveNumber--;
+        }
+        unpackState(this.undoState[index]);
+        this.keyCount--;
+        this.status = null;
+        //Drop the references so taken back pieces are not kept alive by the stack
+        this.undoMoved[index] = null;
+        this.undoCaptured[index] = null;
+        if (index < this.publishedUndoCount) {
+            this.publishedUndoCount = index;
+            publishSnapshot();
+        }
+    }
+
+    //Castling rights in bits 0-3, en passant square + 1 in bits 4-10, halfmove clock above that
+    private int packState() {
+        return this.castlingRights | ((this.enPassantSquare + 1) << 4) | (this.halfmoveClock << 11);
+    }
+
+    private void unpackState(int state) {
+        this.castlingRights = state & ALL_CASTLING;
+        this.enPassantSquare = ((state >>> 4) & 127) - 1;
+        this.halfmoveClock = state >>> 11;
+    }
+
+    /**
+     * Forgets the oldest moves on the undo stack so they can no longer be
+     * taken back, along with the position keys that neither a repetition
+     * check nor taking back the kept moves can reach any more
+     */
+    private void dropOldestMoves(int count) {
+        int kept = this.undoCount - count;
+        //The key saved by the first kept move, and the keys back to the capture or pawn move before it
+        int firstKey = this.keyCount - this.undoCount + count;
+        firstKey = Math.max(0, firstKey - (this.undoState[count] >>> 11));
+        System.arraycopy(this.undoMoves, count, this.undoMoves, 0, kept);
+        System.arraycopy(this.undoMoved, count, this.undoMoved, 0, kept);
+        System.arraycopy(this.undoCaptured, count, this.undoCaptured, 0, kept);
+        System.arraycopy(this.undoTurn, count, this.undoTurn, 0, kept);
+        System.arraycopy(this.undoState, count, this.undoState, 0, kept);
+        Arrays.fill(this.undoMoved, kept, this.undoCount, null);
+        Arrays.fill(this.undoCaptured, kept, this.undoCount, null);
+        this.undoCount = kept;
+        System.arraycopy(this.keyHistory, firstKey, this.keyHistory, 0, this.keyCount - firstKey);
+        this.keyCount -= firstKey;
+    }
+
+    private void pushKey(long key) {
+        if (this.keyCount == this.keyHistory.length) {
+            this.keyHistory = Arrays.copyOf(this.keyHistory, this.keyCount * 2);
+        }
+        this.keyHistory[this.keyCount++] = key;
+    }
+
+    //Only the team whose turn it is can take en passant
+    private int enPassantSquareFor(TeamColor team) {
+        return team == this.turn ? this.enPassantSquare : -1;
+    }
+
+    private void growUndoStack() {
+        int size = this.undoMoves.length * 2;
+        this.undoMoves = Arrays.copyOf(this.undoMoves, size);
+        this.undoMoved = Arrays.copyOf(this.undoMoved, size);
+        this.undoCaptured = Arrays.copyOf(this.undoCaptured, size);
+        this.undoTurn = Arrays.copyOf(this.undoTurn, size);
+        this.undoState = Arrays.copyOf(this.undoState, size);
     }
 
     /**
@@ -165,21 +432,139 @@ public class ChessGame {
      * @return True if the specified team is in check
      */
     public boolean isInCheck(TeamColor teamColor) {
-        for(int i = 1; i <= 8; i++){
-            for(int j = 1; j <= 8; j++){
-                ChessPosition position = new ChessPosition(i, j);
-                ChessPiece piece = this.board.getPiece(position);
-                if(piece != null && piece.getTeamColor() != teamColor){
-                    piece.pieceMoves(this.board, position);
-                    Collection<ChessMove> checkedMoves = piece.getCheckMoves();
-                    if (checkedMoves != null && checkedMoves.size() > 0) {
-                        return true;
-                    }
-                }
+        if (teamColor == TeamColor.FINISHED) {
+            return false;
+        }
+        int kingSquare = this.board.kingSquare(teamColor);
+        if (kingSquare < 0) {
+            return false;
+        }
+        //See if any enemy piece attacks the square the king is on
+        return this.board.isSquareAttacked(kingSquare, opponent(teamColor));
+    }
+
+    /**
+     * Gets the status of the game for the team whose turn it is. The status
+     * is worked out once per position and kept until the position changes,
+     * so asking again after a move is cheap.
+     *
+     * @return the game status
+     */
+    public GameStatus getStatus() {
+        long key = positionKey();
+        if (this.status == null || this.statusKey != key) {
+            this.status = computeStatus();
+            this.statusKey = key;
+        }
+        return this.status;
+    }
+
+    private GameStatus computeStatus() {
+        if (this.turn == TeamColor.FINISHED) {
+            return GameStatus.FINISHED;
+        }
+        boolean check = isInCheck(this.turn);
+        //Checkmate on the last move before a draw still wins
+        if (hasNoLegalMoves(this.turn)) {
+            return check ? GameStatus.CHECKMATE : GameStatus.STALEMATE;
+        }
+        //Piece counts are kept up to date on the board, so this is a few array reads
+        if (this.board.hasInsufficientMaterial()) {
+            return GameStatus.DRAW_BY_INSUFFICIENT_MATERIAL;
+        }
+        if (this.halfmoveClock >= 100) {
+            return GameStatus.DRAW_BY_FIFTY_MOVES;
+        }
+        if (repetitionCount() >= 2) {
+            return GameStatus.DRAW_BY_REPETITION;
+        }
+        return check ? GameStatus.CHECK : GameStatus.ONGOING;
+    }
+
+    /**
+     * Counts how many times the current position came up earlier in the
+     * game. Only positions since the last capture or pawn move can match,
+     * so at most that many keys are compared.
+     *
+     * @return number of earlier occurrences, 2 or more is a threefold repetition
+     */
+    public int repetitionCount() {
+        long key = positionKey();
+        int limit = Math.min(this.halfmoveClock, this.keyCount);
+        int count = 0;
+        //Positions with the same team to move are every second entry
+        for (int i = 2; i <= limit; i += 2) {
+            if (this.keyHistory[this.keyCount - i] == key) {
+                count++;
             }
         }
-        return false;
-                 
+        return count;
+    }
+
+    /**
+     * @return moves by either team since the last capture or pawn move
+     */
+    public int getHalfmoveClock() {
+        return this.halfmoveClock;
+    }
+
+    /**
+     * @return the number of the current move, starting at 1 and going up after each black move
+     */
+    public int getFullmoveNumber() {
+        return this.fullmoveNumber;
+    }
+
+    int getCastlingRights() {
+        return this.castlingRights;
+    }
+
+    int getEnPassantSquare() {
+        return this.enPassantSquare;
+    }
+
+    /**
+     * Keys of the positions since the last capture or pawn move, oldest
+     * first, which is all a repetition check needs
+     */
+    long[] recentKeys() {
+        int count = Math.min(this.halfmoveClock, this.keyCount);
+        return Arrays.copyOfRange(this.keyHistory, this.keyCount - count, this.keyCount);
+    }
+
+    /**
+     * Replaces the game state that is not on the board, used when a saved game is loaded
+     */
+    void restoreState(TeamColor turn, int castlingRights, int enPassantSquare, int halfmoveClock, int fullmoveNumber, long[] recentKeys) {
+        this.turn = turn;
+        this.castlingRights = castlingRights;
+        this.enPassantSquare = enPassantSquare;
+        this.halfmoveClock = halfmoveClock;
+        this.fullmoveNumber = fullmoveNumber;
+        this.keyCount = 0;
+        for (long key : recentKeys) {
+            pushKey(key);
+        }
+        this.status = null;
+        publishSnapshot();
+    }
+
+    /**
+     * Gets an immutable copy of the game as of the last call to
+     * {@link #makeMove(ChessMove)}, {@link #setBoard(ChessBoard)} or
+     * {@link #setTeamTurn(TeamColor)}, or the last {@link #undoMove()} that
+     * took back a made move. Any thread can call this while the
+     * game is being played, without locking.
+     *
+     * @return the latest snapshot of the game
+     */
+    public GameSnapshot snapshot() {
+        return this.snapshot;
+    }
+
+    private void publishSnapshot() {
+        GameSnapshot previous = this.snapshot;
+        this.snapshot = GameSnapshot.of(this, previous == null ? 0 : previous.getVersion() + 1);
     }
 
     /**
@@ -189,9 +574,13 @@ public class ChessGame {
      * @return True if the specified team is in checkmate
      */
     public boolean isInCheckmate(TeamColor teamColor) {
+        //The team to move can use the cached status
+        if (teamColor == this.turn) {
+            return getStatus() == GameStatus.CHECKMATE;
+        }
         //First check if the team is in check
         if(this.isInCheck(teamColor)){
-            return hasValidMoveToEscapeCheck(teamColor);
+            return hasNoLegalMoves(teamColor);
         }
         else{
             return false;
@@ -206,9 +595,12 @@ public class ChessGame {
      * @return True if the specified team is in stalemate, otherwise false
      */
     public boolean isInStalemate(TeamColor teamColor) {
+        if (teamColor == this.turn) {
+            return getStatus() == GameStatus.STALEMATE;
+        }
         //check if this team is in stalemate by checking if the team is in check and has no valid moves
         if(!this.isInCheck(teamColor)){
-            return hasValidMoveToEscapeCheck(teamColor);
+            return hasNoLegalMoves(teamColor);
         }
         else{
             return false;
@@ -216,7 +608,9 @@ public class ChessGame {
     }
 
     /**
-     * Sets this game's chessboard with a given board
+     * Sets this game's chessboard with a given board. Castling is allowed for
+     * every king and rook still on their starting squares, and the move
+     * clocks and the moves that can be undone are reset.
      *
      * @param board the new board to use
      */
@@ -227,7 +621,61 @@ public class ChessGame {
         }
         //Set the board
         this.board = board;
-        
+        this.castlingRights = inferCastlingRights(board);
+        this.enPassantSquare = -1;
+        this.halfmoveClock = 0;
+        this.fullmoveNumber = 1;
+        Arrays.fill(this.undoMoved, 0, this.undoCount, null);
+        Arrays.fill(this.undoCaptured, 0, this.undoCount, null);
+        this.undoCount = 0;
+        this.publishedUndoCount = 0;
+        this.keyCount = 0;
+        this.status = null;
+        publishSnapshot();
+    }
+
+    //Castling rights for every king and rook still on their starting squares
+    static int inferCastlingRights(ChessBoard board) {
+        int rights = 0;
+        if (board.kingSquare(TeamColor.WHITE) == 4) {
+            long rooks = board.pieces(TeamColor.WHITE, ChessPiece.PieceType.ROOK);
+            rights |= (rooks & Bitboards.bit(7)) != 0 ? WHITE_KINGSIDE : 0;
+            rights |= (rooks & Bitboards.bit(0)) != 0 ? WHITE_QUEENSIDE : 0;
+        }
+        if (board.kingSquare(TeamColor.BLACK) == 60) {
+            long rooks = board.pieces(TeamColor.BLACK, ChessPiece.PieceType.ROOK);
+            rights |= (rooks & Bitboards.bit(63)) != 0 ? BLACK_KINGSIDE : 0;
+            rights |= (rooks & Bitboards.bit(56)) != 0 ? BLACK_QUEENSIDE : 0;
+        }
+        return rights;
+    }
+
+    /**
+     * Writes the position in Forsyth-Edwards Notation, about 60 characters
+     * holding the board, the team to move, castling rights, en passant
+     * square and both move clocks. A finished game has "-" as the team to move.
+     *
+     * @return the position as FEN
+     */
+    public String toFen() {
+        return Fen.write(this.board::pieceAt, this.turn, this.castlingRights, this.enPassantSquare, this.halfmoveClock, this.fullmoveNumber);
+    }
+
+    /**
+     * Creates a game from a position in Forsyth-Edwards Notation, as written
+     * by {@link #toFen()} or any other chess program. Unlike a saved game,
+     * the position must have exactly one king for each team.
+     *
+     * @param fen the position
+     * @return a new game at that position
+     * @throws IllegalArgumentException if the text is not a valid position
+     */
+    public static ChessGame fromFen(String fen) {
+        ChessGame game = Fen.read(fen, new long[0]);
+        if (game.board.count(TeamColor.WHITE, ChessPiece.PieceType.KING) != 1 || game.board.count(TeamColor.BLACK, ChessPiece.PieceType.KING) != 1) {
+            throw new IllegalArgumentException("Invalid FEN, each team needs exactly one king: " + fen);
+        }
+        return game;
     }
 
     /**
@@ -239,52 +687,56 @@ public class ChessGame {
         return this.board;
     }
 
-    @Override
-public boolean equals(Object obj) {
-    if (this == obj) {
-        return true;
+    /**
+     * Gets a 64-bit Zobrist key for the current position. Equal positions
+     * always have equal keys, and the key is the same in every process, so it
+     * can be used for position caches and repetition checks. The key covers
+     * the side to move, castling rights and en passant file as well as the
+     * pieces. The board's part of the key is kept up to date as pieces move,
+     * so this is a few XORs.
+     *
+     * @return the position key
+     */
+    public long positionKey() {
+        long key = this.board.pieceKey();
+        if (this.turn == TeamColor.BLACK) {
+            key ^= Zobrist.BLACK_TO_MOVE;
+        }
+        key ^= Zobrist.CASTLING[this.castlingRights];
+        if (this.enPassantSquare >= 0) {
+            key ^= Zobrist.EN_PASSANT_FILE[this.enPassantSquare & 7];
+        }
+        return key;
     }
-    if (obj == null || getClass() != obj.getClass()) {
-        return false;
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        ChessGame that = (ChessGame) obj;
+        // compare the fields of this and that
+        // return true if they are all equal, false otherwise
+        return this.turn == that.turn && this.castlingRights == that.castlingRights
+                && this.enPassantSquare == that.enPassantSquare && this.board.equals(that.board);
     }
-    ChessBoard that = (ChessBoard) obj;
-    // compare the fields of this and that
-    // return true if they are all equal, false otherwise
-    return this.board.equals(that);
-}
 
     @Override
     public int hashCode() {
-        return Objects.hash(board, turn);
-    }
-
-    private boolean hasValidMoveToEscapeCheck(TeamColor teamColor){
-        for(int i = 1; i <= 8; i++){
-            for(int j = 1; j <= 8; j++){
-                ChessPosition position = new ChessPosition(i, j);
-                ChessPiece piece = this.board.getPiece(position);
-                if(piece != null && piece.getTeamColor() == teamColor){
-                    //Get the valid moves for the piece
-                    Collection<ChessMove> validMoves = piece.pieceMoves(this.board, position);
-                    ChessBoard boardCopy = new ChessBoard(this.board);
-                    //Check each move to see if it get the king out of check
-                    for(ChessMove move : validMoves){
-                        //Restore the board to the original board using the copy
-                        this.board = new ChessBoard(boardCopy);
-                        //Make the move
-                        this.board.addPiece(move.getEndPosition(), piece);
-                        this.board.removePiece(move.getStartPosition());
-                        //Check if the king is in check
-                        if (!this.isInCheck(teamColor)) {
-                            //Restore the board to the original board
-                            this.board = new ChessBoard(boardCopy);
-                            return false;
-                        }
-                    }
-                    this.board = new ChessBoard(boardCopy);
-                }
-            }
+        return Long.hashCode(positionKey());
+    }
+
+    private boolean hasNoLegalMoves(TeamColor teamColor){
+        //A finished game has no team left to move
+        if (teamColor == TeamColor.FINISHED) {
+            return false;
         }
-        return true;
+        MoveList moves = this.pieceMoveList;
+        moves.clear();
+        MoveGenerator.addLegalMoves(this.board, teamColor, this.castlingRights, enPassantSquareFor(teamColor), -1L, moves);
+        return moves.isEmpty();
     }
 }
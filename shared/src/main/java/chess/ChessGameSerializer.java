@@ -0,0 +1,81 @@
+package chess;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonDeserializationContext;
+import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonSerializationContext;
+import com.google.gson.JsonSerializer;
+
+import java.lang.reflect.Type;
+
+/**
+ * Converts a {@link ChessGame} to and from JSON.
+ * <p>
+ * The position is written as a single "fen" string (see {@link ChessGame#toFen()}),
+ * which holds the board, turn, castling rights, en passant square and move
+ * clocks in about 60 bytes. The keys of the positions since the last capture
+ * or pawn move are written too, so a game loaded from storage can still spot
+ * a repeated position. Games saved before as a "board" with the state in
+ * separate fields, or with only a board and a turn, can still be read;
+ * castling rights are then taken from the kings and rooks on their starting squares.
+ */
+class ChessGameSerializer implements JsonSerializer<ChessGame>, JsonDeserializer<ChessGame> {
+
+    @Override
+    public JsonElement serialize(ChessGame game, Type type, JsonSerializationContext context) {
+        return toJson(game.toFen(), game.recentKeys());
+    }
+
+    /**
+     * Writes the game format from its parts, shared with {@link GameSnapshotSerializer}
+     */
+    static JsonObject toJson(String fen, long[] recentKeys) {
+        JsonObject json = new JsonObject();
+        json.addProperty("fen", fen);
+        JsonArray keys = new JsonArray();
+        for (long key : recentKeys) {
+            keys.add(key);
+        }
+        json.add("recentKeys", keys);
+        return json;
+    }
+
+    @Override
+    public ChessGame deserialize(JsonElement json, Type type, JsonDeserializationContext context) throws JsonParseException {
+        JsonObject object = json.getAsJsonObject();
+        JsonArray keys = object.has("recentKeys") ? object.getAsJsonArray("recentKeys") : new JsonArray();
+        long[] recentKeys = new long[keys.size()];
+        for (int i = 0; i < recentKeys.length; i++) {
+            recentKeys[i] = keys.get(i).getAsLong();
+        }
+        JsonElement fen = object.get("fen");
+        if (fen != null && !fen.isJsonNull()) {
+            try {
+                return Fen.read(fen.getAsString(), recentKeys);
+            } catch (IllegalArgumentException e) {
+                throw new JsonParseException(e.getMessage(), e);
+            }
+        }
+        ChessGame game = new ChessGame();
+        JsonElement board = object.get("board");
+        if (board != null && !board.isJsonNull()) {
+            game.setBoard(context.deserialize(board, ChessBoard.class));
+        }
+        ChessGame.TeamColor turn = context.deserialize(object.get("turn"), ChessGame.TeamColor.class);
+        game.restoreState(turn == null ? ChessGame.TeamColor.WHITE : turn,
+                getInt(object, "castlingRights", game.getCastlingRights()),
+                getInt(object, "enPassantSquare", -1),
+                getInt(object, "halfmoveClock", 0),
+                getInt(object, "fullmoveNumber", 1),
+                recentKeys);
+        return game;
+    }
+
+    private int getInt(JsonObject object, String name, int missing) {
+        JsonElement value = object.get(name);
+        return value == null || value.isJsonNull() ? missing : value.getAsInt();
+    }
+}
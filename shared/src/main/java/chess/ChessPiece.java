@@ -20,7 +20,7 @@ public class ChessPiece {
 
     @Override
     public int hashCode() {
-        return Objects.hash(pieceColor, type, validMoves);
+        return Objects.hash(pieceColor, type);
     }
 
     @Override
@@ -29,23 +29,62 @@ public class ChessPiece {
         return this.pieceColor == ChessGame.TeamColor.WHITE ? this.type.toString().substring(0, 1) : this.type == PieceType.KNIGHT ? "n" : this.type.toString().substring(0, 1).toLowerCase();
     }
 
-    private ChessGame.TeamColor pieceColor;
-    private PieceType type;
-    private Collection<ChessMove> validMoves;
-    private Collection<ChessMove> checkMoves;
+    private final ChessGame.TeamColor pieceColor;
+    private final PieceType type;
+
+    //The shared instance for every team and piece type, indexed by Bitboards.pieceIndex
+    private static final ChessPiece[] PIECES = new ChessPiece[12];
+    //Letters used to write pieces in compact text, white in upper case and black in lower case
+    private static final String SYMBOLS = "KQBNRPkqbnrp";
+
+    static {
+        for (ChessGame.TeamColor color : new ChessGame.TeamColor[] {ChessGame.TeamColor.WHITE, ChessGame.TeamColor.BLACK}) {
+            for (PieceType type : PieceType.values()) {
+                if (type != PieceType.INVALID) {
+                    PIECES[Bitboards.pieceIndex(color, type)] = new ChessPiece(color, type);
+                }
+            }
+        }
+    }
 
     public ChessPiece() {
         this.pieceColor = ChessGame.TeamColor.WHITE;
         this.type = PieceType.PAWN;
-        this.validMoves = new ArrayList<ChessMove>();
-        this.checkMoves = new ArrayList<ChessMove>();
     }
 
     public ChessPiece(ChessGame.TeamColor pieceColor, ChessPiece.PieceType type) {
         this.pieceColor = pieceColor;
         this.type = type;
-        this.validMoves = new ArrayList<ChessMove>();
-        this.checkMoves = new ArrayList<ChessMove>();
+    }
+
+    /**
+     * Gets the shared instance for a team and piece type. A piece holds
+     * nothing but these two values and never changes, so every board can use
+     * the same 12 instances instead of creating its own.
+     *
+     * @return the shared piece
+     * @throws IllegalArgumentException if the type is INVALID or the team is FINISHED
+     */
+    public static ChessPiece of(ChessGame.TeamColor pieceColor, PieceType type) {
+        if (type == PieceType.INVALID || pieceColor == ChessGame.TeamColor.FINISHED) {
+            throw new IllegalArgumentException("Only white and black pieces can be placed on a board");
+        }
+        return PIECES[Bitboards.pieceIndex(pieceColor, type)];
+    }
+
+    /**
+     * @return the shared piece written as a letter by {@link #symbol()}, or null if the letter is not a piece
+     */
+    static ChessPiece fromSymbol(char symbol) {
+        int index = SYMBOLS.indexOf(symbol);
+        return index < 0 ? null : PIECES[index];
+    }
+
+    /**
+     * @return the piece's letter as used in FEN, upper case for white and lower case for black
+     */
+    char symbol() {
+        return SYMBOLS.charAt(Bitboards.pieceIndex(this.pieceColor, this.type));
     }
 
     /**
@@ -75,10 +114,6 @@ public class ChessPiece {
         return this.type;
     }
 
-    public Collection<ChessMove> getCheckMoves() {
-        return this.checkMoves;
-    }
-
     /**
      * Calculates all the positions a chess piece can move to
      * Does not take into account moves that are illegal due to leaving the king in
@@ -87,173 +122,16 @@ public class ChessPiece {
      * @return Collection of valid moves
      */
     public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition) {
-        //Get the row and column of the position of the piece that I am getting from the board
-        int row = myPosition.getRow(); 
-        int col = myPosition.getColumn();
-
-        this.validMoves.clear();
-        this.checkMoves.clear();
-
-        //Switch on the piece type
-        switch (this.type){
-            //Check if the piece is a king
-            case KING:
-                for (int i = -1; i < 2; i++){
-                    for (int j = -1; j < 2; j++){
-                        checkAround(board, myPosition, row, i, col, j);
-                    }
-                }    
-                break;
-            //Check if the piece is a queen
-            case QUEEN:
-                addValidDiagonalOrVerticalMoves(1, 0, row, col, board, validMoves, myPosition);  // up
-                addValidDiagonalOrVerticalMoves(1, 1, row, col, board, validMoves, myPosition);  // up-right
-                addValidDiagonalOrVerticalMoves(1, -1, row, col, board, validMoves, myPosition); // up-left
-                addValidDiagonalOrVerticalMoves(0, 1, row, col, board, validMoves, myPosition); // right
-                addValidDiagonalOrVerticalMoves(-1, 0, row, col, board, validMoves, myPosition); // down
-                addValidDiagonalOrVerticalMoves(-1, 1, row, col, board, validMoves, myPosition); // down-right
-                addValidDiagonalOrVerticalMoves(-1, -1, row, col, board, validMoves, myPosition); // down-left
-                addValidDiagonalOrVerticalMoves(0, -1, row, col, board, validMoves, myPosition); // left
-                break;
-            //Check if the piece is a bishop
-            case BISHOP:
-                addValidDiagonalOrVerticalMoves(1, 1, row, col, board, validMoves, myPosition);  // up-right
-                addValidDiagonalOrVerticalMoves(-1, 1, row, col, board, validMoves, myPosition); // down-right
-                addValidDiagonalOrVerticalMoves(-1, -1, row, col, board, validMoves, myPosition); // down-left
-                addValidDiagonalOrVerticalMoves(1, -1, row, col, board, validMoves, myPosition); // up-left
-                break;
-            //Check if the piece is a knight
-            case KNIGHT:
-                for (int i = -2; i < 3; i++){
-                    for (int j = -2; j < 3; j++){
-                        if (Math.abs(i) != Math.abs(j) && i != 0 && j != 0){
-                            checkAround(board, myPosition, row, i, col, j);
-                        }
-                    }
-                }
-                break;
-            //Check if the piece is a rook
-            case ROOK:
-                addValidDiagonalOrVerticalMoves(1, 0, row, col, board, validMoves, myPosition);  // up
-                addValidDiagonalOrVerticalMoves(-1, 0, row, col, board, validMoves, myPosition); // down
-                addValidDiagonalOrVerticalMoves(0, 1, row, col, board, validMoves, myPosition); // right
-                addValidDiagonalOrVerticalMoves(0, -1, row, col, board, validMoves, myPosition); // left
-                break;
-            //Check if the piece is a pawn
-            case PAWN:         
-                //Check if the pawn is in the starting position
-                pawnCheckForFirstMove(row, col, board, myPosition);
-                //Check for capture
-                pawnCheckForCapture(row, col, board, myPosition);
-                //Check for promotion
-                pawnCheckForPromotion(row, col, board, myPosition);
-                //Check for normal move
-                pawnCheckForValidMove(row, col, board, myPosition);
-                break;
-            default:
-                break;
+        if (this.type == PieceType.INVALID) {
+            return new ArrayList<>();
         }
-        return this.validMoves;
-    }
-
-    private void checkAround(ChessBoard board, ChessPosition myPosition, int row, int i, int col, int j) {
-        ChessPiece move = board.getPiece(new ChessPosition(row + i, col + j));
-        if (move == null || move.getTeamColor() != this.pieceColor && move.type != PieceType.INVALID)
-        {
-            ChessMove chessMove = new ChessMove(myPosition, new ChessPosition(row + i, col + j), null);
-            this.validMoves.add(chessMove);
-            if (move != null && move.getTeamColor() != this.pieceColor && move.type == PieceType.KING){
-                this.checkMoves.add(chessMove);
-            }
+        //Generate the moves as packed ints and only build ChessMove objects for the result
+        MoveList moves = new MoveList();
+        MoveGenerator.addPieceMoves(board, this.type, this.pieceColor, myPosition.getSquare(), moves);
+        Collection<ChessMove> validMoves = new ArrayList<>(moves.size());
+        for (int i = 0; i < moves.size(); i++) {
+            validMoves.add(Move.toChessMove(moves.get(i), myPosition));
         }
-    }
-
-    private void addValidDiagonalOrVerticalMoves(int rowIncrement, int colIncrement, int row, int col, ChessBoard board, Collection<ChessMove> validMoves, ChessPosition myPosition) {
-        for (int i = 1; i < 8; i++){
-                ChessPiece move = board.getPiece(new ChessPosition(row + rowIncrement * i, col + colIncrement * i ));
-                if (move == null)
-                {
-                    ChessMove chessMove = new ChessMove(myPosition, new ChessPosition(row + rowIncrement * i, col + colIncrement * i), null);
-                    this.validMoves.add(chessMove);
-                }
-                else if (move.type != PieceType.INVALID && move.getTeamColor() != this.pieceColor){
-                    ChessMove chessMove = new ChessMove(myPosition, new ChessPosition(row + rowIncrement * i, col + colIncrement * i), null);
-                    this.validMoves.add(chessMove);
-                    if (move != null && move.getTeamColor() != this.pieceColor && move.type == PieceType.KING){
-                        this.checkMoves.add(chessMove);
-                    }
-                    i = 8;
-                }
-                else{
-                    i = 8;
-                }
-        }
-    }
-
-    private void pawnCheckForFirstMove(int row , int col, ChessBoard board, ChessPosition myPosition){
-        if ((this.pieceColor ==  ChessGame.TeamColor.WHITE && row == 2) || (this.pieceColor ==  ChessGame.TeamColor.BLACK && row == 7)){
-                for (int i = 1; i < 3; i++){
-                    ChessPiece move = board.getPiece(new ChessPosition(row == 2 ? row + i : row - i, col));
-                    if (move == null)
-                    {
-                        ChessMove chessMove = new ChessMove(myPosition, new ChessPosition(row == 2 ? row + i : row - i, col), null);
-                        this.validMoves.add(chessMove);
-                    }
-                    else{
-                        i = 3;
-                    }
-                } 
-        }
-    }
-
-    private void pawnCheckForCapture(int row, int col, ChessBoard board, ChessPosition myPosition){
-            for (int i = -1; i < 2; i += 2){
-                ChessPiece move = board.getPiece(new ChessPosition(row + (this.pieceColor == ChessGame.TeamColor.WHITE ? 1 : -1), col + i));
-                if (move != null && move.getTeamColor() != this.pieceColor && move.type != PieceType.INVALID)
-                {
-                    if(pawnCheckForPromotion(row + (this.pieceColor == ChessGame.TeamColor.WHITE ? 1 : -1), col + i, board, myPosition)){
-                        if (move != null && move.getTeamColor() != this.pieceColor && move.type == PieceType.KING){
-                            this.checkMoves.add(new ChessMove(myPosition, new ChessPosition(row + (this.pieceColor == ChessGame.TeamColor.WHITE ? 1 : -1), col + i), null));
-                        }
-                        return;
-                    }
-                    else{
-                    ChessMove chessMove = new ChessMove(myPosition, new ChessPosition(row + (this.pieceColor == ChessGame.TeamColor.WHITE ? 1 : -1), col + i), null);
-                    this.validMoves.add(chessMove);
-                    if (move != null && move.getTeamColor() != this.pieceColor && move.type == PieceType.KING){
-                        this.checkMoves.add(chessMove);
-                    }
-                    }
-                }
-            }
-    }
-
-    private boolean pawnCheckForPromotion(int row, int col, ChessBoard board, ChessPosition myPosition){
-        if ((this.pieceColor ==  ChessGame.TeamColor.WHITE && row == 8) || (this.pieceColor ==  ChessGame.TeamColor.BLACK && row == 1)){
-            //loop the user to choose what piece they want to promote to
-            for (int i = 1; i < 5; i++){
-                //Create a new chess move
-                ChessMove chessMove = new ChessMove(myPosition, new ChessPosition(row, col), PieceType.values()[i]);
-                //Add the move to the collection of valid moves
-                this.validMoves.add(chessMove);
-            }
-            return true;
-        }
-        return false;
-    }
-
-    private void pawnCheckForValidMove(int row, int col, ChessBoard board, ChessPosition myPosition){
-            ChessPiece move = board.getPiece(new ChessPosition(row + (this.pieceColor == ChessGame.TeamColor.WHITE ? 1 : -1), col));
-            if (move == null)
-            {
-                if(pawnCheckForPromotion(row + (this.pieceColor == ChessGame.TeamColor.WHITE ? 1 : -1), col, board, myPosition)){
-                    return;
-                }
-                else{
-                    ChessMove chessMove = new ChessMove(myPosition, new ChessPosition(row + (this.pieceColor == ChessGame.TeamColor.WHITE ? 1 : -1), col), null);
-                    this.validMoves.add(chessMove);
-                }
-            }
+        return validMoves;
     }
 }
-
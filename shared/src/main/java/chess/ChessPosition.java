@@ -1,7 +1,5 @@
 package chess;
 
-import java.util.Objects;
-
 /**
  * Represents a single square position on a chess board
  * <p>
@@ -10,8 +8,20 @@ import java.util.Objects;
  */
 public class ChessPosition {
 
-    private int row;
-    private int col;
+    private final int row;
+    private final int col;
+
+    //The one shared position for each square on the board, indexed by getSquare()
+    private static final ChessPosition[] SQUARES = new ChessPosition[64];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            SQUARES[square] = new ChessPosition(Bitboards.row(square), Bitboards.column(square));
+        }
+    }
+
+    //Returned by of() for every position off the board
+    private static final ChessPosition OFF_BOARD = new ChessPosition();
 
     @Override
     public boolean equals(Object o) {
@@ -23,7 +33,8 @@ public class ChessPosition {
 
     @Override
     public int hashCode() {
-        return Objects.hash(row, col);
+        //Same value as Objects.hash(row, col) without boxing both ints into an array
+        return 31 * (31 + row) + col;
     }
 
     public ChessPosition() {
@@ -36,6 +47,39 @@ public class ChessPosition {
         this.col = col;
     }
 
+    /**
+     * Gets a position without creating one when it is on the board. Every
+     * caller gets the same instance for a square, so comparing them is an
+     * identity check. Every position off the board gets one shared position
+     * at row 0 and column 0, whose square is -1.
+     *
+     * @param row 1 codes for the bottom row
+     * @param col 1 codes for the left column
+     * @return the position
+     */
+    public static ChessPosition of(int row, int col) {
+        if (!Bitboards.onBoard(row, col)) {
+            return OFF_BOARD;
+        }
+        return SQUARES[Bitboards.square(row, col)];
+    }
+
+    /**
+     * @param square square index from 0 (a1) to 63 (h8), see {@link #getSquare()}
+     * @return the shared position for that square
+     */
+    public static ChessPosition fromSquare(int square) {
+        return SQUARES[square];
+    }
+
+    /**
+     * @return the square index of this position, counting from 0 at a1 along
+     * each row up to 63 at h8, or -1 if the position is off the board
+     */
+    public int getSquare() {
+        return Bitboards.onBoard(this.row, this.col) ? Bitboards.square(this.row, this.col) : -1;
+    }
+
     /**
      * @return which row this position is in
      * 1 codes for the bottom row
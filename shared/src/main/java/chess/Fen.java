@@ -0,0 +1,228 @@
+package chess;
+
+import chess.ChessGame.TeamColor;
+
+import java.util.function.IntFunction;
+
+/**
+ * Reads and writes positions in Forsyth-Edwards Notation (FEN), for example
+ * {@code rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1}: the rows
+ * from row 8 down, the team to move, castling rights, en passant square and
+ * the two move clocks. A finished game is written with "-" as the team to
+ * move, which other tools will not read but keeps the turn when it is read
+ * back here.
+ * <p>
+ * The parser walks the string a character at a time and places pieces
+ * straight onto a new board, so reading a position costs about as much as
+ * setting up the board by hand.
+ */
+final class Fen {
+
+    static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private static final String CASTLING_LETTERS = "KQkq";
+
+    private Fen() {
+    }
+
+    /**
+     * Writes a position from its parts, so a {@link GameSnapshot} can be
+     * written without building a game
+     *
+     * @param pieces the piece on each square (a1 = 0, h8 = 63), or null if it is empty
+     */
+    static String write(IntFunction<ChessPiece> pieces, TeamColor turn, int castlingRights, int enPassantSquare,
+                        int halfmoveClock, int fullmoveNumber) {
+        StringBuilder fen = new StringBuilder(90);
+        for (int row = 7; row >= 0; row--) {
+            int empty = 0;
+            for (int col = 0; col < 8; col++) {
+                ChessPiece piece = pieces.apply(row * 8 + col);
+                if (piece == null) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    fen.append((char) ('0' + empty));
+                    empty = 0;
+                }
+                fen.append(piece.symbol());
+            }
+            if (empty > 0) {
+                fen.append((char) ('0' + empty));
+            }
+            if (row > 0) {
+                fen.append('/');
+            }
+        }
+        fen.append(' ').append(turn == TeamColor.WHITE ? 'w' : turn == TeamColor.BLACK ? 'b' : '-').append(' ');
+        if (castlingRights == 0) {
+            fen.append('-');
+        }
+        for (int i = 0; i < 4; i++) {
+            if ((castlingRights & (1 << i)) != 0) {
+                fen.append(CASTLING_LETTERS.charAt(i));
+            }
+        }
+        fen.append(' ');
+        if (enPassantSquare < 0) {
+            fen.append('-');
+        }
+        else {
+            fen.append((char) ('a' + (enPassantSquare & 7))).append((char) ('1' + (enPassantSquare >>> 3)));
+        }
+        return fen.append(' ').append(halfmoveClock).append(' ').append(fullmoveNumber).toString();
+    }
+
+    /**
+     * Reads a position into a new game. The move clocks may be left off, as
+     * some tools do, and default to 0 and 1.
+     *
+     * @param recentKeys keys of earlier positions for spotting repetitions, see {@link ChessGame#repetitionCount()}
+     * @throws IllegalArgumentException if the text is not a valid position
+     */
+    static ChessGame read(String fen, long[] recentKeys) {
+        if (fen == null) {
+            throw new IllegalArgumentException("FEN is missing");
+        }
+        ChessBoard board = new ChessBoard();
+        int length = fen.length();
+        int i = skipSpaces(fen, 0);
+        int row = 7;
+        int col = 0;
+        for (; i < length && fen.charAt(i) != ' '; i++) {
+            char c = fen.charAt(i);
+            if (c == '/') {
+                if (col != 8 || row == 0) {
+                    throw invalid(fen, "every row needs 8 squares");
+                }
+                row--;
+                col = 0;
+            }
+            else if (c >= '1' && c <= '8') {
+                col += c - '0';
+                if (col > 8) {
+                    throw invalid(fen, "a row has more than 8 squares");
+                }
+            }
+            else {
+                ChessPiece piece = ChessPiece.fromSymbol(c);
+                if (piece == null) {
+                    throw invalid(fen, "unknown piece '" + c + "'");
+                }
+                if (col == 8) {
+                    throw invalid(fen, "a row has more than 8 squares");
+                }
+                board.placeAt(row * 8 + col++, piece);
+            }
+        }
+        if (row != 0 || col != 8) {
+            throw invalid(fen, "the board needs 8 rows of 8 squares");
+        }
+
+        i = skipSpaces(fen, i);
+        TeamColor turn = switch (i < length ? fen.charAt(i++) : ' ') {
+            case 'w' -> TeamColor.WHITE;
+            case 'b' -> TeamColor.BLACK;
+            case '-' -> TeamColor.FINISHED;
+            default -> throw invalid(fen, "the team to move must be w or b");
+        };
+
+        i = skipSpaces(fen, i);
+        int castlingRights = 0;
+        if (i < length && fen.charAt(i) == '-') {
+            i++;
+        }
+        else {
+            for (; i < length && fen.charAt(i) != ' '; i++) {
+                int index = CASTLING_LETTERS.indexOf(fen.charAt(i));
+                if (index < 0) {
+                    throw invalid(fen, "unknown castling right '" + fen.charAt(i) + "'");
+                }
+                castlingRights |= 1 << index;
+            }
+        }
+        //A right is no use once the king or rook has left its square, and keeping it would change the position key
+        castlingRights &= ChessGame.inferCastlingRights(board);
+
+        i = skipSpaces(fen, i);
+        int enPassantSquare = -1;
+        if (i < length && fen.charAt(i) == '-') {
+            i++;
+        }
+        else if (i + 1 < length) {
+            int file = fen.charAt(i) - 'a';
+            int rank = fen.charAt(i + 1) - '1';
+            int expected = turn == TeamColor.WHITE ? 5 : 2;
+            if (file < 0 || file > 7 || (turn != TeamColor.FINISHED && rank != expected)) {
+                throw invalid(fen, "bad en passant square");
+            }
+            i += 2;
+            int square = rank * 8 + file;
+            //Like ChessGame.doMove, only keep the square if a pawn can use it, so equal positions keep equal keys
+            if (turn != TeamColor.FINISHED && (Bitboards.PAWN_ATTACKS[ChessGame.opponent(turn).ordinal()][square]
+                    & board.pieces(turn, ChessPiece.PieceType.PAWN)) != 0) {
+                enPassantSquare = square;
+            }
+        }
+        else {
+            throw invalid(fen, "the en passant square is missing");
+        }
+
+        int halfmoveClock = 0;
+        int fullmoveNumber = 1;
+        i = skipSpaces(fen, i);
+        if (i < length) {
+            int end = fieldEnd(fen, i);
+            halfmoveClock = readNumber(fen, i, end);
+            i = skipSpaces(fen, end);
+            if (i < length) {
+                end = fieldEnd(fen, i);
+                fullmoveNumber = Math.max(1, readNumber(fen, i, end));
+                i = skipSpaces(fen, end);
+            }
+        }
+        if (i < length) {
+            throw invalid(fen, "unexpected text after the move clocks");
+        }
+
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+        game.restoreState(turn, castlingRights, enPassantSquare, halfmoveClock, fullmoveNumber, recentKeys);
+        return game;
+    }
+
+    private static int skipSpaces(String fen, int i) {
+        while (i < fen.length() && fen.charAt(i) == ' ') {
+            i++;
+        }
+        return i;
+    }
+
+    private static int fieldEnd(String fen, int i) {
+        while (i < fen.length() && fen.charAt(i) != ' ') {
+            i++;
+        }
+        return i;
+    }
+
+    private static int readNumber(String fen, int start, int end) {
+        //Long enough for any real game, short enough that it cannot overflow
+        if (end - start > 6) {
+            throw invalid(fen, "move clock is too large");
+        }
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = fen.charAt(i);
+            if (c < '0' || c > '9') {
+                throw invalid(fen, "move clocks must be numbers");
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static IllegalArgumentException invalid(String fen, String reason) {
+        return new IllegalArgumentException("Invalid FEN, " + reason + ": " + fen);
+    }
+}
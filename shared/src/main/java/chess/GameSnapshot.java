@@ -0,0 +1,205 @@
+package chess;
+
+import chess.ChessGame.GameStatus;
+import chess.ChessGame.TeamColor;
+import com.google.gson.annotations.JsonAdapter;
+
+/**
+ * An immutable copy of a game at one point in time, so other threads can
+ * read, serialize or analyse a game while its owner keeps playing moves.
+ * <p>
+ * {@link ChessGame#makeMove(ChessMove)} builds the next snapshot from the
+ * last one, copying only what the move changed: the one to three rows of
+ * the board it touched, and one link added to the list of earlier position
+ * keys. Everything else is shared with the previous snapshot, so making one
+ * per move costs a few small arrays. Snapshots are published through a
+ * volatile field, so readers never lock and always see a whole position.
+ * <p>
+ * Snapshots are written to JSON in the same format as {@link ChessGame}, so
+ * a snapshot sent by the server is read by the client as a normal game.
+ */
+@JsonAdapter(GameSnapshotSerializer.class)
+public final class GameSnapshot {
+
+    //The pieces on each row (index 0 is row 1), rows the last move did not touch are shared with the previous snapshot
+    private final ChessPiece[][] rows;
+    private final TeamColor turn;
+    private final int castlingRights;
+    private final int enPassantSquare;
+    private final int halfmoveClock;
+    private final int fullmoveNumber;
+    private final long positionKey;
+    //Keys of the positions since the last capture or pawn move, newest first
+    private final KeyNode recentKeys;
+    private final long version;
+    //Worked out the first time it is asked for unless the game already knew it. Racing threads would all
+    //store the same value, so it does not need to be volatile.
+    private GameStatus status;
+
+    private record KeyNode(long key, KeyNode previous) {
+    }
+
+    private GameSnapshot(ChessPiece[][] rows, ChessGame game, KeyNode recentKeys, long version, GameStatus status) {
+        this.rows = rows;
+        this.turn = game.getTeamTurn();
+        this.castlingRights = game.getCastlingRights();
+        this.enPassantSquare = game.getEnPassantSquare();
+        this.halfmoveClock = game.getHalfmoveClock();
+        this.fullmoveNumber = game.getFullmoveNumber();
+        this.positionKey = game.positionKey();
+        this.recentKeys = recentKeys;
+        this.version = version;
+        this.status = status;
+    }
+
+    /**
+     * Copies the whole game, used when there is no earlier snapshot to build on
+     */
+    static GameSnapshot of(ChessGame game, long version) {
+        ChessBoard board = game.getBoard();
+        ChessPiece[][] rows = new ChessPiece[8][];
+        for (int row = 0; row < 8; row++) {
+            rows[row] = new ChessPiece[8];
+            for (int col = 0; col < 8; col++) {
+                rows[row][col] = board.pieceAt(row * 8 + col);
+            }
+        }
+        KeyNode keys = null;
+        for (long key : game.recentKeys()) {
+            keys = new KeyNode(key, keys);
+        }
+        return new GameSnapshot(rows, game, keys, version, null);
+    }
+
+    /**
+     * Builds the snapshot for the position after a move, sharing everything
+     * the move did not change with this one
+     *
+     * @param game   the game, with the move already played
+     * @param move   the move that was played, with its flags
+     * @param status the new position's status, or null if not known yet
+     */
+    GameSnapshot next(ChessGame game, int move, GameStatus status) {
+        ChessPiece[][] rows = this.rows.clone();
+        ChessBoard board = game.getBoard();
+        int from = Move.from(move);
+        int to = Move.to(move);
+        update(rows, board, from);
+        update(rows, board, to);
+        if ((move & Move.EN_PASSANT) != 0) {
+            //The taken pawn was beside the start square
+            update(rows, board, (from & ~7) | (to & 7));
+        }
+        if ((move & Move.CASTLE) != 0) {
+            update(rows, board, to > from ? from + 3 : from - 4);
+            update(rows, board, (from + to) / 2);
+        }
+        //A capture or pawn move means no earlier position can come up again
+        KeyNode keys = game.getHalfmoveClock() == 0 ? null : new KeyNode(this.positionKey, this.recentKeys);
+        return new GameSnapshot(rows, game, keys, this.version + 1, status);
+    }
+
+    //Copies a row the first time one of its squares changes
+    private void update(ChessPiece[][] rows, ChessBoard board, int square) {
+        int row = square >>> 3;
+        if (rows[row] == this.rows[row]) {
+            rows[row] = rows[row].clone();
+        }
+        rows[row][square & 7] = board.pieceAt(square);
+    }
+
+    /**
+     * @return the piece at the position, or null if there is none or the position is off the board
+     */
+    public ChessPiece getPiece(ChessPosition position) {
+        int square = position.getSquare();
+        return square < 0 ? null : this.rows[square >>> 3][square & 7];
+    }
+
+    public TeamColor getTeamTurn() {
+        return this.turn;
+    }
+
+    public int getHalfmoveClock() {
+        return this.halfmoveClock;
+    }
+
+    public int getFullmoveNumber() {
+        return this.fullmoveNumber;
+    }
+
+    /**
+     * @return the game's position key when the snapshot was taken, see {@link ChessGame#positionKey()}
+     */
+    public long positionKey() {
+        return this.positionKey;
+    }
+
+    /**
+     * @return the position in Forsyth-Edwards Notation, see {@link ChessGame#toFen()}
+     */
+    public String toFen() {
+        return Fen.write(square -> this.rows[square >>> 3][square & 7], this.turn, this.castlingRights, this.enPassantSquare,
+                this.halfmoveClock, this.fullmoveNumber);
+    }
+
+    /**
+     * @return a number that goes up by one every time the game publishes a new snapshot
+     */
+    public long getVersion() {
+        return this.version;
+    }
+
+    /**
+     * @return the status of the game when the snapshot was taken
+     */
+    public GameStatus getStatus() {
+        GameStatus status = this.status;
+        if (status == null) {
+            status = toGame().getStatus();
+            this.status = status;
+        }
+        return status;
+    }
+
+    /**
+     * @return a new board with the snapshot's pieces that the caller is free to change
+     */
+    public ChessBoard toBoard() {
+        ChessBoard board = new ChessBoard();
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                ChessPiece piece = this.rows[row][col];
+                if (piece != null) {
+                    board.placeAt(row * 8 + col, piece);
+                }
+            }
+        }
+        return board;
+    }
+
+    /**
+     * @return a new game in the snapshot's position that the caller is free to play on
+     */
+    public ChessGame toGame() {
+        ChessGame game = new ChessGame();
+        game.setBoard(toBoard());
+        game.restoreState(this.turn, this.castlingRights, this.enPassantSquare, this.halfmoveClock, this.fullmoveNumber, recentKeys());
+        return game;
+    }
+
+    /**
+     * @return keys of the positions since the last capture or pawn move, oldest first
+     */
+    long[] recentKeys() {
+        int count = 0;
+        for (KeyNode node = this.recentKeys; node != null; node = node.previous()) {
+            count++;
+        }
+        long[] keys = new long[count];
+        for (KeyNode node = this.recentKeys; node != null; node = node.previous()) {
+            keys[--count] = node.key();
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,28 @@
+package chess;
+
+import com.google.gson.JsonDeserializationContext;
+import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonSerializationContext;
+import com.google.gson.JsonSerializer;
+
+import java.lang.reflect.Type;
+
+/**
+ * Converts a {@link GameSnapshot} to and from JSON, using the same format as
+ * {@link ChessGameSerializer} so either class can read what the other wrote.
+ */
+class GameSnapshotSerializer implements JsonSerializer<GameSnapshot>, JsonDeserializer<GameSnapshot> {
+
+    @Override
+    public JsonElement serialize(GameSnapshot snapshot, Type type, JsonSerializationContext context) {
+        return ChessGameSerializer.toJson(snapshot.toFen(), snapshot.recentKeys());
+    }
+
+    @Override
+    public GameSnapshot deserialize(JsonElement json, Type type, JsonDeserializationContext context) throws JsonParseException {
+        ChessGame game = context.deserialize(json, ChessGame.class);
+        return game == null ? null : game.snapshot();
+    }
+}
@@ -0,0 +1,101 @@
+package chess;
+
+/**
+ * Helpers for moves packed into a single int, used by the move generator so
+ * it does not have to create a {@link ChessMove} (and two positions) for
+ * every move it looks at.
+ * <p>
+ * Layout: bits 0-5 start square, bits 6-11 end square, bits 12-14 the
+ * promotion piece type ordinal plus one (0 for no promotion, so a king
+ * promotion cannot pass for a plain move) and the bits above that hold
+ * flags. Squares are numbered the same way as the board's bitboards
+ * (a1 = 0, h8 = 63).
+ */
+public final class Move {
+
+    /**
+     * Never a real move, since a move cannot start and end on a1
+     */
+    public static final int NONE = 0;
+
+    /**
+     * The move takes an enemy piece
+     */
+    public static final int CAPTURE = 1 << 15;
+    /**
+     * A pawn moving two squares from its starting row
+     */
+    public static final int DOUBLE_PUSH = 1 << 16;
+    /**
+     * A king moving two squares to castle, the rook moves with it
+     */
+    public static final int CASTLE = 1 << 17;
+    /**
+     * A pawn taking a pawn that has just moved two squares past it
+     */
+    public static final int EN_PASSANT = 1 << 18;
+
+    //The start square, end square and promotion piece, which together identify a move
+    private static final int IDENTITY_MASK = (1 << 15) - 1;
+    //Cached because values() copies its array on every call
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    private Move() {
+    }
+
+    /**
+     * @param promotion type of piece to promote a pawn to, or null for no promotion
+     * @param flags     any of the flag constants or'ed together
+     */
+    public static int encode(int from, int to, ChessPiece.PieceType promotion, int flags) {
+        return from | (to << 6) | ((promotion == null ? 0 : promotion.ordinal() + 1) << 12) | flags;
+    }
+
+    public static int from(int move) {
+        return move & 63;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 63;
+    }
+
+    /**
+     * @return Type of piece to promote a pawn to, or null if no promotion
+     */
+    public static ChessPiece.PieceType promotion(int move) {
+        int promotion = (move >>> 12) & 7;
+        return promotion == 0 ? null : TYPES[promotion - 1];
+    }
+
+    public static boolean isCapture(int move) {
+        return (move & CAPTURE) != 0;
+    }
+
+    /**
+     * @return True if both moves have the same start, end and promotion, ignoring flags
+     */
+    public static boolean sameMove(int move, int other) {
+        return (move & IDENTITY_MASK) == (other & IDENTITY_MASK);
+    }
+
+    /**
+     * Packs a {@link ChessMove} without any flags, the start and end
+     * positions must be on the board
+     */
+    public static int fromChessMove(ChessMove move) {
+        ChessPosition start = move.getStartPosition();
+        ChessPosition end = move.getEndPosition();
+        return encode(start.getSquare(), end.getSquare(), move.getPromotionPiece(), 0);
+    }
+
+    public static ChessMove toChessMove(int move) {
+        return toChessMove(move, ChessPosition.fromSquare(from(move)));
+    }
+
+    /**
+     * Builds a {@link ChessMove} reusing a start position the caller already has
+     */
+    static ChessMove toChessMove(int move, ChessPosition startPosition) {
+        return new ChessMove(startPosition, ChessPosition.fromSquare(to(move)), promotion(move));
+    }
+}
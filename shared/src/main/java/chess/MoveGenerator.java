@@ -0,0 +1,219 @@
+package chess;
+
+import chess.ChessGame.TeamColor;
+import chess.ChessPiece.PieceType;
+
+/**
+ * Generates moves straight from the board's bitboards into a {@link MoveList}.
+ * <p>
+ * {@link #addPieceMoves} gives pseudo-legal moves (moves that may still leave
+ * the king in check). {@link #addLegalMoves} gives only legal moves without
+ * playing any of them: it finds the pieces giving check and the pieces
+ * pinned to the king first, then limits every other piece's targets to the
+ * squares that block or capture the checker and to its pin line. Castling
+ * and en passant need the game's state, so only the legal generator makes them.
+ */
+final class MoveGenerator {
+
+    private static final PieceType[] PROMOTIONS = {PieceType.QUEEN, PieceType.BISHOP, PieceType.KNIGHT, PieceType.ROOK};
+
+    private MoveGenerator() {
+    }
+
+    /**
+     * Adds the moves a piece of the given type and team could make from a square
+     */
+    static void addPieceMoves(ChessBoard board, PieceType type, TeamColor color, int from, MoveList moves) {
+        addPieceMoves(board, type, color, from, -1L, moves);
+    }
+
+    /**
+     * Adds the legal moves of the given team's pieces on the squares in fromMask
+     *
+     * @param castlingRights   castling rights mask, see {@link ChessGame#WHITE_KINGSIDE}
+     * @param enPassantSquare  square a pawn can take en passant on, or -1
+     * @param fromMask         bitboard of the squares to generate moves for, -1 for every piece
+     */
+    static void addLegalMoves(ChessBoard board, TeamColor color, int castlingRights, int enPassantSquare, long fromMask, MoveList moves) {
+        long movers = board.teamOccupancy(color) & fromMask;
+        int king = board.kingSquare(color);
+        //With no king on the board there is nothing to leave in check
+        if (king < 0) {
+            if (enPassantSquare >= 0) {
+                addEnPassantMoves(board, color, enPassantSquare, movers, king, moves);
+            }
+            while (movers != 0) {
+                int square = Long.numberOfTrailingZeros(movers);
+                movers &= movers - 1;
+                addPieceMoves(board, board.pieceAt(square).getPieceType(), color, square, -1L, moves);
+            }
+            return;
+        }
+        TeamColor enemy = ChessGame.opponent(color);
+        long occupied = board.occupancy();
+        long kingBit = Bitboards.bit(king);
+        long checkers = board.attackersTo(king, enemy, occupied);
+
+        if ((movers & kingBit) != 0) {
+            addKingMoves(board, enemy, king, moves);
+            //A king in check cannot castle out of it
+            if (checkers == 0 && castlingRights != 0) {
+                addCastlingMoves(board, color, enemy, castlingRights, king, moves);
+            }
+            movers &= ~kingBit;
+        }
+        //Only the king can get out of double check
+        if (movers == 0 || Long.bitCount(checkers) > 1) {
+            return;
+        }
+        if (enPassantSquare >= 0) {
+            addEnPassantMoves(board, color, enPassantSquare, movers, king, moves);
+        }
+        //In check, other pieces must capture the checker or step between it and the king
+        long checkMask = checkers == 0 ? -1L : checkers | Bitboards.BETWEEN[king][Long.numberOfTrailingZeros(checkers)];
+        long pinned = pinnedPieces(board, color, enemy, king, occupied);
+        while (movers != 0) {
+            int square = Long.numberOfTrailingZeros(movers);
+            movers &= movers - 1;
+            long allowed = checkMask;
+            //A pinned piece can only move along the line between its king and the pinning piece
+            if ((pinned & Bitboards.bit(square)) != 0) {
+                allowed &= Bitboards.LINE[king][square];
+            }
+            if (allowed != 0) {
+                addPieceMoves(board, board.pieceAt(square).getPieceType(), color, square, allowed, moves);
+            }
+        }
+    }
+
+    private static void addKingMoves(ChessBoard board, TeamColor enemy, int king, MoveList moves) {
+        long own = board.occupancy() & ~board.teamOccupancy(enemy);
+        long targets = Bitboards.KING_ATTACKS[king] & ~own;
+        //The king is left out so it cannot hide behind itself on a slider's line
+        long occupied = board.occupancy() & ~Bitboards.bit(king);
+        long enemyPieces = board.teamOccupancy(enemy);
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            if (board.attackersTo(to, enemy, occupied) == 0) {
+                moves.add(Move.encode(king, to, null, (enemyPieces & Bitboards.bit(to)) != 0 ? Move.CAPTURE : 0));
+            }
+        }
+    }
+
+    private static void addCastlingMoves(ChessBoard board, TeamColor color, TeamColor enemy, int castlingRights, int king, MoveList moves) {
+        boolean white = color == TeamColor.WHITE;
+        int home = white ? 4 : 60;
+        if (king != home) {
+            return;
+        }
+        long rooks = board.pieces(color, PieceType.ROOK);
+        long occupied = board.occupancy();
+        int kingside = white ? ChessGame.WHITE_KINGSIDE : ChessGame.BLACK_KINGSIDE;
+        int queenside = white ? ChessGame.WHITE_QUEENSIDE : ChessGame.BLACK_QUEENSIDE;
+        //The squares between king and rook must be empty, and the king may not pass through or land on an attacked square
+        if ((castlingRights & kingside) != 0 && (rooks & Bitboards.bit(home + 3)) != 0
+                && (occupied & (Bitboards.bit(home + 1) | Bitboards.bit(home + 2))) == 0
+                && board.attackersTo(home + 1, enemy, occupied) == 0
+                && board.attackersTo(home + 2, enemy, occupied) == 0) {
+            moves.add(Move.encode(home, home + 2, null, Move.CASTLE));
+        }
+        if ((castlingRights & queenside) != 0 && (rooks & Bitboards.bit(home - 4)) != 0
+                && (occupied & (Bitboards.bit(home - 1) | Bitboards.bit(home - 2) | Bitboards.bit(home - 3))) == 0
+                && board.attackersTo(home - 1, enemy, occupied) == 0
+                && board.attackersTo(home - 2, enemy, occupied) == 0) {
+            moves.add(Move.encode(home, home - 2, null, Move.CASTLE));
+        }
+    }
+
+    private static void addEnPassantMoves(ChessBoard board, TeamColor color, int enPassantSquare, long movers, int king, MoveList moves) {
+        TeamColor enemy = ChessGame.opponent(color);
+        long pawns = Bitboards.PAWN_ATTACKS[enemy.ordinal()][enPassantSquare] & board.pieces(color, PieceType.PAWN) & movers;
+        int captured = enPassantSquare + (color == TeamColor.WHITE ? -8 : 8);
+        while (pawns != 0) {
+            int from = Long.numberOfTrailingZeros(pawns);
+            pawns &= pawns - 1;
+            //Two pawns leave the row at once, so pins and checks are simplest to test on the board as it would be after the move
+            long occupied = board.occupancy() ^ Bitboards.bit(from) ^ Bitboards.bit(captured) ^ Bitboards.bit(enPassantSquare);
+            if (king < 0 || (board.attackersTo(king, enemy, occupied) & ~Bitboards.bit(captured)) == 0) {
+                moves.add(Move.encode(from, enPassantSquare, null, Move.CAPTURE | Move.EN_PASSANT));
+            }
+        }
+    }
+
+    //Own pieces that are the only piece between the king and an enemy rook, bishop or queen on its line
+    private static long pinnedPieces(ChessBoard board, TeamColor color, TeamColor enemy, int king, long occupied) {
+        long queens = board.pieces(enemy, PieceType.QUEEN);
+        long snipers = (Bitboards.rookAttacks(king, 0L) & (board.pieces(enemy, PieceType.ROOK) | queens))
+                | (Bitboards.bishopAttacks(king, 0L) & (board.pieces(enemy, PieceType.BISHOP) | queens));
+        long own = board.teamOccupancy(color);
+        long pinned = 0L;
+        while (snipers != 0) {
+            int sniper = Long.numberOfTrailingZeros(snipers);
+            snipers &= snipers - 1;
+            long between = Bitboards.BETWEEN[king][sniper] & occupied;
+            if (between != 0 && (between & (between - 1)) == 0 && (between & own) != 0) {
+                pinned |= between;
+            }
+        }
+        return pinned;
+    }
+
+    /**
+     * Adds the moves a piece could make from a square, keeping only those
+     * that end on a square in the allowed mask
+     */
+    private static void addPieceMoves(ChessBoard board, PieceType type, TeamColor color, int from, long allowed, MoveList moves) {
+        long own = board.teamOccupancy(color);
+        long enemy = board.occupancy() & ~own;
+        if (type == PieceType.PAWN) {
+            addPawnMoves(board, color, from, enemy, allowed, moves);
+            return;
+        }
+        long targets = Bitboards.attacks(type, color, from, board.occupancy()) & ~own & allowed;
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            moves.add(Move.encode(from, to, null, (enemy & Bitboards.bit(to)) != 0 ? Move.CAPTURE : 0));
+        }
+    }
+
+    private static void addPawnMoves(ChessBoard board, TeamColor color, int from, long enemy, long allowed, MoveList moves) {
+        boolean white = color == TeamColor.WHITE;
+        //Pawns on the last row have nowhere left to go
+        if ((Bitboards.bit(from) & (white ? Bitboards.ROW_8 : Bitboards.ROW_1)) != 0) {
+            return;
+        }
+        long empty = ~board.occupancy();
+        int forward = white ? 8 : -8;
+        int to = from + forward;
+        if ((empty & Bitboards.bit(to)) != 0) {
+            if ((allowed & Bitboards.bit(to)) != 0) {
+                addPawnMove(from, to, 0, moves);
+            }
+            //Pawns in the starting position can move two squares if both are empty
+            int startRow = white ? 2 : 7;
+            if (Bitboards.row(from) == startRow && (empty & allowed & Bitboards.bit(to + forward)) != 0) {
+                moves.add(Move.encode(from, to + forward, null, Move.DOUBLE_PUSH));
+            }
+        }
+        long captures = Bitboards.PAWN_ATTACKS[color.ordinal()][from] & enemy & allowed;
+        while (captures != 0) {
+            int target = Long.numberOfTrailingZeros(captures);
+            captures &= captures - 1;
+            addPawnMove(from, target, Move.CAPTURE, moves);
+        }
+    }
+
+    private static void addPawnMove(int from, int to, int flags, MoveList moves) {
+        //A pawn reaching the last row must choose what piece to promote to
+        if ((Bitboards.bit(to) & (Bitboards.ROW_1 | Bitboards.ROW_8)) != 0) {
+            for (PieceType promotion : PROMOTIONS) {
+                moves.add(Move.encode(from, to, promotion, flags));
+            }
+        }
+        else {
+            moves.add(Move.encode(from, to, null, flags));
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * A reusable buffer of packed moves (see {@link Move}). Callers keep one
+ * list per search depth or request and {@link #clear()} it between uses, so
+ * generating moves does not allocate.
+ */
+public final class MoveList {
+
+    //More than the most legal moves any chess position has
+    private static final int DEFAULT_CAPACITY = 256;
+
+    private int[] moves;
+    private int size;
+
+    public MoveList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public MoveList(int capacity) {
+        this.moves = new int[capacity];
+    }
+
+    public void add(int move) {
+        if (this.size == this.moves.length) {
+            this.moves = Arrays.copyOf(this.moves, this.moves.length * 2);
+        }
+        this.moves[this.size++] = move;
+    }
+
+    public int get(int index) {
+        return this.moves[index];
+    }
+
+    public void set(int index, int move) {
+        this.moves[index] = move;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    public void clear() {
+        this.size = 0;
+    }
+
+    /**
+     * Drops every move from the given index onwards
+     */
+    public void truncate(int size) {
+        this.size = size;
+    }
+
+    /**
+     * @return the index of the move with the same start, end and promotion, or -1
+     */
+    public int indexOf(int move) {
+        for (int i = 0; i < this.size; i++) {
+            if (Move.sameMove(this.moves[i], move)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,162 @@
+package chess;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Magic bitboard attack tables for rooks and bishops (queens use both).
+ * <p>
+ * For every square, the pieces that can block a slider are picked out of
+ * the occupancy with a mask, multiplied by a "magic" number and shifted, which
+ * gives a unique index into a table of precomputed attacks. Looking up an
+ * attack set is then an AND, a multiply, a shift and an array read instead
+ * of walking the rays.
+ * <p>
+ * The magic numbers were found once with a sparse random search and are
+ * listed below, so only the attack tables have to be filled in. Each table
+ * lives in its own holder class, so nothing is built until a rook or bishop
+ * attack is asked for and server startup is not delayed.
+ * {@link #buildNanos()} reports how long building took.
+ */
+public final class SlidingAttacks {
+
+    private static final long[] ROOK_MAGICS = {
+            0xA80004000801220L, 0x8040004010002008L, 0x2080200010008008L, 0x1100100008210004L,
+            0xC200209084020008L, 0x2100010004000208L, 0x400081000822421L, 0x200010422048844L,
+            0x800800080400024L, 0x1402000401000L, 0x3000801000802001L, 0x4400800800100083L,
+            0x904802402480080L, 0x4040800400020080L, 0x18808042000100L, 0x4040800080004100L,
+            0x40048001458024L, 0xA0004000205000L, 0x3100808010002000L, 0x4825010010000820L,
+            0x5004808008000401L, 0x2024818004000A00L, 0x5808002000100L, 0x2100060004806104L,
+            0x80400880008421L, 0x4062220600410280L, 0x10A004A00108022L, 0x100080080080L,
+            0x21000500080010L, 0x44000202001008L, 0x100400080102L, 0xC020128200040545L,
+            0x80002000400040L, 0x804000802004L, 0x120022004080L, 0x10A386103001001L,
+            0x9010080080800400L, 0x8440020080800400L, 0x4228824001001L, 0x490A000084L,
+            0x80002000504000L, 0x200020005000C000L, 0x12088020420010L, 0x10010080080800L,
+            0x85001008010004L, 0x2000204008080L, 0x40413002040008L, 0x304081020004L,
+            0x80204000800080L, 0x3008804000290100L, 0x1010100080200080L, 0x2008100208028080L,
+            0x5000850800910100L, 0x8402019004680200L, 0x120911028020400L, 0x8044010200L,
+            0x20850200244012L, 0x20850200244012L, 0x102001040841L, 0x140900040A100021L,
+            0x200282410A102L, 0x200282410A102L, 0x200282410A102L, 0x4048240043802106L
+    };
+
+    private static final long[] BISHOP_MAGICS = {
+            0x40106000A1160020L, 0x20010250810120L, 0x2010010220280081L, 0x2806004050C040L,
+            0x2021018000000L, 0x2001112010000400L, 0x881010120218080L, 0x1030820110010500L,
+            0x120222042400L, 0x2000020404040044L, 0x8000480094208000L, 0x3422A02000001L,
+            0xA220210100040L, 0x8004820202226000L, 0x18234854100800L, 0x100004042101040L,
+            0x4001004082820L, 0x10000810010048L, 0x1014004208081300L, 0x2080818802044202L,
+            0x40880C00A00100L, 0x80400200522010L, 0x1000188180B04L, 0x80249202020204L,
+            0x1004400004100410L, 0x13100A0022206L, 0x2148500001040080L, 0x4241080011004300L,
+            0x4020848004002000L, 0x10101380D1004100L, 0x8004422020284L, 0x1010A1041008080L,
+            0x808080400082121L, 0x808080400082121L, 0x91128200100C00L, 0x202200802010104L,
+            0x8C0A020200440085L, 0x1A0008080B10040L, 0x889520080122800L, 0x100902022202010AL,
+            0x4081A0816002000L, 0x681208005000L, 0x8170840041008802L, 0xA00004200810805L,
+            0x830404408210100L, 0x2602208106006102L, 0x1048300680802628L, 0x2602208106006102L,
+            0x602010120110040L, 0x941010801043000L, 0x40440A210428L, 0x8240020880021L,
+            0x400002012048200L, 0xAC102001210220L, 0x220021002009900L, 0x84440C080A013080L,
+            0x1008044200440L, 0x4C04410841000L, 0x2000500104011130L, 0x1A0C010011C20229L,
+            0x44800112202200L, 0x434804908100424L, 0x300404822C08200L, 0x48081010008A2A80L
+    };
+
+    private static final AtomicLong BUILD_NANOS = new AtomicLong();
+
+    private SlidingAttacks() {
+    }
+
+    /**
+     * Gets the time spent building the attack tables so far. A table is
+     * built the first time it is used, so this is 0 until then.
+     *
+     * @return build time in nanoseconds
+     */
+    public static long buildNanos() {
+        return BUILD_NANOS.get();
+    }
+
+    static long rookAttacks(int square, long occupied) {
+        return RookTable.TABLE.attacks(square, occupied);
+    }
+
+    static long bishopAttacks(int square, long occupied) {
+        return BishopTable.TABLE.attacks(square, occupied);
+    }
+
+    //Holder classes, the JVM builds each table the first time its class is used
+    private static final class RookTable {
+        static final Table TABLE = new Table(true, ROOK_MAGICS);
+    }
+
+    private static final class BishopTable {
+        static final Table TABLE = new Table(false, BISHOP_MAGICS);
+    }
+
+    private static final class Table {
+        private final long[] masks = new long[64];
+        private final long[] magics;
+        private final int[] shifts = new int[64];
+        private final int[] offsets = new int[64];
+        //The attack sets of every square, one block per square starting at its offset
+        private final long[] attacks;
+
+        Table(boolean rook, long[] magics) {
+            long start = System.nanoTime();
+            this.magics = magics;
+            int size = 0;
+            for (int square = 0; square < 64; square++) {
+                this.masks[square] = relevantBlockers(square, rook);
+                this.shifts[square] = 64 - Long.bitCount(this.masks[square]);
+                this.offsets[square] = size;
+                size += 1 << Long.bitCount(this.masks[square]);
+            }
+            this.attacks = new long[size];
+            for (int square = 0; square < 64; square++) {
+                fill(square, rook);
+            }
+            BUILD_NANOS.addAndGet(System.nanoTime() - start);
+        }
+
+        long attacks(int square, long occupied) {
+            int index = (int) (((occupied & this.masks[square]) * this.magics[square]) >>> this.shifts[square]);
+            return this.attacks[this.offsets[square] + index];
+        }
+
+        private void fill(int square, boolean rook) {
+            long mask = this.masks[square];
+            int count = 1 << Long.bitCount(mask);
+            boolean[] filled = new boolean[count];
+            long blockers = 0L;
+            //Visit every subset of the blockers, the last step wraps back round to the empty set
+            for (int i = 0; i < count; i++) {
+                long reference = rook ? Bitboards.rayRookAttacks(square, blockers) : Bitboards.rayBishopAttacks(square, blockers);
+                int index = (int) ((blockers * this.magics[square]) >>> this.shifts[square]);
+                //Two blocker sets may share an entry only if they allow the same attacks
+                if (filled[index] && this.attacks[this.offsets[square] + index] != reference) {
+                    throw new IllegalStateException("Bad magic number for square " + square);
+                }
+                filled[index] = true;
+                this.attacks[this.offsets[square] + index] = reference;
+                blockers = (blockers - mask) & mask;
+            }
+        }
+    }
+
+    //Squares whose pieces can block the slider, the last square of a ray never blocks anything behind it
+    private static long relevantBlockers(int square, boolean rook) {
+        long attacks = rook ? Bitboards.rayRookAttacks(square, 0L) : Bitboards.rayBishopAttacks(square, 0L);
+        int row = Bitboards.row(square);
+        int col = Bitboards.column(square);
+        long edges = 0L;
+        if (row != 1) {
+            edges |= Bitboards.ROW_1;
+        }
+        if (row != 8) {
+            edges |= Bitboards.ROW_8;
+        }
+        if (col != 1) {
+            edges |= Bitboards.COLUMN_A;
+        }
+        if (col != 8) {
+            edges |= Bitboards.COLUMN_H;
+        }
+        return attacks & ~edges;
+    }
+}
@@ -0,0 +1,261 @@
+package chess;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * An endgame tablebase for one set of material, such as KRK: for every
+ * position with exactly those pieces, whether the team to move wins, draws
+ * or loses with best play, and in how many moves (plies) mate comes.
+ * Tables are built by {@link TablebaseGenerator} and read straight from a
+ * memory-mapped file, so opening one reads nothing and probing allocates
+ * nothing.
+ * <p>
+ * File layout: a 16 byte header (magic number, number of pieces besides the
+ * kings, and each of those pieces as color ordinal * 6 + type ordinal),
+ * then one byte per position for white to move followed by one per
+ * position for black to move, indexed by {@link #index}. A byte holds 0 for
+ * a draw, {@link #ILLEGAL} for a position that cannot happen, and otherwise
+ * the number of plies to mate plus one. The team to move wins when that
+ * number of plies is odd and loses when it is even. Castling is never
+ * possible in a tablebase position, and neither is en passant since a
+ * table never has pawns on both sides.
+ */
+public final class Tablebase {
+
+    public static final int WIN = 1;
+    public static final int DRAW = 0;
+    public static final int LOSS = -1;
+
+    //"CTB1"
+    static final int MAGIC = 0x43544231;
+    static final int HEADER_BYTES = 16;
+    //Positions with more pieces than the kings and this many would not fit in memory
+    static final int MAX_PIECES = 2;
+    static final int ILLEGAL = 0xFF;
+    //Letters of the piece types, in the order pieces are listed in a material name
+    private static final String LETTERS = "QRBNP";
+    private static final ChessPiece.PieceType[] LETTER_TYPES = {ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.ROOK,
+            ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.KNIGHT, ChessPiece.PieceType.PAWN};
+
+    //Cached because values() copies its array on every call
+    private static final ChessGame.TeamColor[] COLORS = ChessGame.TeamColor.values();
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    private final MappedByteBuffer buffer;
+    private final int[] pieces;
+    private final int positions;
+
+    private Tablebase(MappedByteBuffer buffer, int[] pieces) {
+        this.buffer = buffer;
+        this.pieces = pieces;
+        this.positions = positions(pieces.length);
+    }
+
+    /**
+     * Maps a table file
+     *
+     * @throws IOException if the file cannot be read or is not a tablebase
+     */
+    public static Tablebase open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long bytes = channel.size();
+            //The mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(bytes, Integer.MAX_VALUE));
+            if (bytes < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) < 0 || buffer.getInt(4) > MAX_PIECES) {
+                throw new IOException("Not a tablebase: " + file);
+            }
+            int[] pieces = new int[buffer.getInt(4)];
+            for (int i = 0; i < pieces.length; i++) {
+                pieces[i] = buffer.get(8 + i);
+            }
+            if (bytes != HEADER_BYTES + 2L * positions(pieces.length)) {
+                throw new IOException("Tablebase is truncated: " + file);
+            }
+            return new Tablebase(buffer, pieces);
+        }
+    }
+
+    /**
+     * @return the material this table covers, for example "KQK"
+     */
+    public String material() {
+        return materialName(this.pieces);
+    }
+
+    /**
+     * @return True if the game has exactly this table's pieces and cannot castle
+     */
+    public boolean covers(ChessGame game) {
+        if (game.getCastlingRights() != 0 || game.getTeamTurn() == ChessGame.TeamColor.FINISHED) {
+            return false;
+        }
+        ChessBoard board = game.getBoard();
+        if (board.count(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING) != 1
+                || board.count(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING) != 1
+                || Long.bitCount(board.occupancy()) != 2 + this.pieces.length) {
+            return false;
+        }
+        for (int piece : this.pieces) {
+            if (board.count(color(piece), type(piece)) != countOf(piece)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return {@link #WIN}, {@link #DRAW} or {@link #LOSS} for the team to move
+     * @throws IllegalArgumentException if the table does not cover the game, see {@link #covers}
+     */
+    public int result(ChessGame game) {
+        int value = value(game);
+        return value == 0 ? DRAW : ((value - 1) & 1) == 1 ? WIN : LOSS;
+    }
+
+    /**
+     * @return plies until mate with best play, counting the mating move, or -1 for a draw.
+     * 0 means the team to move is checkmated.
+     * @throws IllegalArgumentException if the table does not cover the game, see {@link #covers}
+     */
+    public int pliesToMate(ChessGame game) {
+        return value(game) - 1;
+    }
+
+    private int value(ChessGame game) {
+        if (!covers(game)) {
+            throw new IllegalArgumentException("The " + material() + " tablebase does not cover this position");
+        }
+        ChessBoard board = game.getBoard();
+        int index = board.kingSquare(ChessGame.TeamColor.WHITE) * 64 + board.kingSquare(ChessGame.TeamColor.BLACK);
+        for (int i = 0; i < this.pieces.length; i++) {
+            //Identical pieces are listed in square order, the table holds the same value for either order
+            long squares = board.pieces(color(this.pieces[i]), type(this.pieces[i]));
+            for (int j = i - 1; j >= 0 && this.pieces[j] == this.pieces[i]; j--) {
+                squares &= squares - 1;
+            }
+            index = index * 64 + Long.numberOfTrailingZeros(squares);
+        }
+        long offset = HEADER_BYTES + (game.getTeamTurn() == ChessGame.TeamColor.WHITE ? 0 : this.positions) + (long) index;
+        int value = this.buffer.get((int) offset) & 0xFF;
+        if (value == ILLEGAL) {
+            throw new IllegalArgumentException("The team that just moved is still in check");
+        }
+        return value;
+    }
+
+    private int countOf(int piece) {
+        int count = 0;
+        for (int other : this.pieces) {
+            if (other == piece) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return the number of positions for one team to move
+     */
+    static int positions(int pieceCount) {
+        return 1 << (6 * (2 + pieceCount));
+    }
+
+    /**
+     * @param squares the square of each piece besides the kings, in material order
+     * @return the position's index among those for one team to move
+     */
+    static int index(int whiteKing, int blackKing, int[] squares, int count) {
+        int index = whiteKing * 64 + blackKing;
+        for (int i = 0; i < count; i++) {
+            index = index * 64 + squares[i];
+        }
+        return index;
+    }
+
+    static ChessGame.TeamColor color(int piece) {
+        return COLORS[piece / 6];
+    }
+
+    static ChessPiece.PieceType type(int piece) {
+        return TYPES[piece % 6];
+    }
+
+    /**
+     * Reads a material name such as "KRK" or "KQKR", white's pieces first
+     *
+     * @return the pieces besides the kings, as color ordinal * 6 + type ordinal in material order
+     */
+    static int[] parseMaterial(String name) {
+        int blackKing = name.indexOf('K', 1);
+        if (!name.startsWith("K") || blackKing < 0 || name.length() - 2 > MAX_PIECES) {
+            throw new IllegalArgumentException("Material must be two kings and at most " + MAX_PIECES + " other pieces, like KQK: " + name);
+        }
+        int[] pieces = new int[name.length() - 2];
+        int count = 0;
+        for (int i = 1; i < name.length(); i++) {
+            if (i == blackKing) {
+                continue;
+            }
+            int letter = LETTERS.indexOf(name.charAt(i));
+            if (letter < 0) {
+                throw new IllegalArgumentException("Unknown piece " + name.charAt(i) + " in " + name);
+            }
+            int color = i < blackKing ? 0 : 1;
+            pieces[count++] = color * 6 + LETTER_TYPES[letter].ordinal();
+        }
+        sortMaterial(pieces, null, pieces.length);
+        //The index has no room for an en passant square, which a pawn on each side could need
+        if (name.indexOf('P') > 0 && name.indexOf('P') < blackKing && name.indexOf('P', blackKing) > 0) {
+            throw new IllegalArgumentException("Tables with pawns on both sides are not supported: " + name);
+        }
+        return pieces;
+    }
+
+    static String materialName(int[] pieces) {
+        StringBuilder white = new StringBuilder("K");
+        StringBuilder black = new StringBuilder("K");
+        for (int piece : pieces) {
+            char letter = LETTERS.charAt(letterIndex(type(piece)));
+            (piece < 6 ? white : black).append(letter);
+        }
+        return white.append(black).toString();
+    }
+
+    /**
+     * Puts pieces in material order, white first then queens, rooks,
+     * bishops, knights and pawns, moving their squares along with them
+     *
+     * @param squares each piece's square, or null
+     */
+    static void sortMaterial(int[] pieces, int[] squares, int count) {
+        for (int i = 1; i < count; i++) {
+            for (int j = i; j > 0 && order(pieces[j]) < order(pieces[j - 1]); j--) {
+                int piece = pieces[j];
+                pieces[j] = pieces[j - 1];
+                pieces[j - 1] = piece;
+                if (squares != null) {
+                    int square = squares[j];
+                    squares[j] = squares[j - 1];
+                    squares[j - 1] = square;
+                }
+            }
+        }
+    }
+
+    private static int order(int piece) {
+        return (piece / 6) * 8 + letterIndex(type(piece));
+    }
+
+    private static int letterIndex(ChessPiece.PieceType type) {
+        for (int i = 0; i < LETTER_TYPES.length; i++) {
+            if (LETTER_TYPES[i] == type) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Kings are not listed in a material name");
+    }
+}
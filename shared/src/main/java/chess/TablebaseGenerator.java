@@ -0,0 +1,448 @@
+package chess;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Builds {@link Tablebase} files by retrograde analysis. Every position of
+ * the material is listed, checkmates are marked first, and then each pass
+ * works back one ply from the positions already solved: on odd passes a
+ * position is won if a move reaches a position the other team has lost,
+ * on even passes it is lost if every move reaches a position the other
+ * team has won. What is still unsolved when the passes stop changing
+ * anything is a draw.
+ * <p>
+ * Moves that capture or promote leave the table for a smaller one (KPK
+ * promotes into KQK, KRK and so on), so the smaller tables are built first
+ * and kept in memory. Each pass walks the positions across a
+ * {@link ForkJoinPool} in pieces of {@link #LEAF_SIZE}, the unsolved
+ * positions are kept as a bitmap so a pass skips solved ones a word at a
+ * time, and no two pieces ever write the same word of it.
+ * <p>
+ * Material is limited to the kings and two other pieces: one byte per
+ * position for four pieces is already 32 MB. Pawns on both sides are
+ * refused, as a double push could allow an en passant capture that the
+ * table's positions do not record.
+ * <p>
+ * Usage: {@code java chess.TablebaseGenerator <directory> <material>... [--threads n]},
+ * for example {@code java chess.TablebaseGenerator tables KQK KRK KPK}
+ */
+public final class TablebaseGenerator {
+
+    /**
+     * Totals for one generated table
+     *
+     * @param material    the table's material, such as "KRK"
+     * @param wins        legal positions the team to move wins, for either team
+     * @param draws       legal positions that are drawn
+     * @param losses      legal positions the team to move loses, counting checkmates
+     * @param longestMate most plies to mate of any position
+     * @param passes      passes over the table it took
+     * @param nanos       time taken, including any smaller tables it needed
+     */
+    public record Result(String material, long wins, long draws, long losses, int longestMate, int passes, long nanos) {
+    }
+
+    //Positions per task, a multiple of 64 so each word of the unsolved bitmap has one writer
+    private static final int LEAF_SIZE = 4096;
+    //Plies to mate are kept in a byte with 0 and ILLEGAL reserved
+    private static final int MAX_PLIES = Tablebase.ILLEGAL - 2;
+    private static final ChessPiece.PieceType[] PROMOTIONS = {ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.ROOK,
+            ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.KNIGHT};
+
+    private final ForkJoinPool pool;
+    //Tables built so far by material name, values for white to move then black to move
+    private final Map<String, byte[][]> tables = new HashMap<>();
+    private final Map<String, Integer> longestMates = new HashMap<>();
+
+    public TablebaseGenerator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Builds the table for the material, and every smaller table it leads
+     * into, then writes it to the file
+     *
+     * @param material for example "KQK" or "KRKP", white's pieces first
+     */
+    public Result write(String material, Path file) throws IOException {
+        long start = System.nanoTime();
+        int[] pieces = Tablebase.parseMaterial(material);
+        int passes = build(pieces);
+        byte[][] values = this.tables.get(Tablebase.materialName(pieces));
+        long wins = 0;
+        long draws = 0;
+        long losses = 0;
+        for (byte[] side : values) {
+            for (byte value : side) {
+                int v = value & 0xFF;
+                if (v == 0) {
+                    draws++;
+                }
+                else if (v != Tablebase.ILLEGAL) {
+                    if (((v - 1) & 1) == 1) {
+                        wins++;
+                    }
+                    else {
+                        losses++;
+                    }
+                }
+            }
+        }
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), 1 << 16)) {
+            DataOutputStream header = new DataOutputStream(out);
+            header.writeInt(Tablebase.MAGIC);
+            header.writeInt(pieces.length);
+            byte[] codes = new byte[Tablebase.HEADER_BYTES - 8];
+            for (int i = 0; i < pieces.length; i++) {
+                codes[i] = (byte) pieces[i];
+            }
+            header.write(codes);
+            out.write(values[0]);
+            out.write(values[1]);
+        }
+        return new Result(Tablebase.materialName(pieces), wins, draws, losses,
+                this.longestMates.get(Tablebase.materialName(pieces)), passes, System.nanoTime() - start);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: TablebaseGenerator <directory> <material>... [--threads n]");
+            return;
+        }
+        Path directory = Paths.get(args[0]);
+        int threads = Runtime.getRuntime().availableProcessors();
+        List<String> materials = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--threads") && i + 1 < args.length) {
+                threads = Integer.parseInt(args[++i]);
+            }
+            else if (args[i].startsWith("--")) {
+                System.out.println("Unknown argument: " + args[i]);
+                return;
+            }
+            else {
+                materials.add(args[i]);
+            }
+        }
+        Files.createDirectories(directory);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            TablebaseGenerator generator = new TablebaseGenerator(pool);
+            for (String material : materials) {
+                Result result = generator.write(material, directory.resolve(material + ".tb"));
+                System.out.printf("%s: %d wins, %d draws, %d losses, longest mate %d plies, %d passes, %d ms%n",
+                        result.material(), result.wins(), result.draws(), result.losses(), result.longestMate(),
+                        result.passes(), result.nanos() / 1_000_000);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Builds the table for the pieces unless it is already built, and the
+     * tables for every capture and promotion out of it first
+     *
+     * @return the number of passes over the table, 0 if it was already built
+     */
+    private int build(int[] pieces) {
+        String name = Tablebase.materialName(pieces);
+        if (this.tables.containsKey(name)) {
+            return 0;
+        }
+        //Only the kings left is a draw and needs no table
+        int longestSub = 0;
+        for (int i = 0; i < pieces.length; i++) {
+            int[] smaller = new int[pieces.length - 1];
+            for (int j = 0, k = 0; j < pieces.length; j++) {
+                if (j != i) {
+                    smaller[k++] = pieces[j];
+                }
+            }
+            if (smaller.length > 0) {
+                build(smaller);
+                longestSub = Math.max(longestSub, this.longestMates.get(Tablebase.materialName(smaller)));
+            }
+            if (Tablebase.type(pieces[i]) == ChessPiece.PieceType.PAWN) {
+                for (ChessPiece.PieceType promotion : PROMOTIONS) {
+                    int[] promoted = pieces.clone();
+                    promoted[i] = (pieces[i] / 6) * 6 + promotion.ordinal();
+                    Tablebase.sortMaterial(promoted, null, promoted.length);
+                    build(promoted);
+                    longestSub = Math.max(longestSub, this.longestMates.get(Tablebase.materialName(promoted)));
+                }
+            }
+        }
+
+        int size = Tablebase.positions(pieces.length);
+        byte[][] values = {new byte[size], new byte[size]};
+        long[] unsolved = new long[2 * size / 64];
+        Table table = new Table(pieces, values, unsolved, this.tables);
+        this.pool.invoke(new PassTask(table, 0, 0, 2 * size));
+        int longest = 0;
+        int quietPasses = 0;
+        int pass = 1;
+        //A mate in a smaller table can still reach this one once the passes get past its length
+        for (; quietPasses < 2 || pass <= longestSub + 1; pass++) {
+            if (pass > MAX_PLIES) {
+                throw new IllegalStateException("Mates in " + name + " are longer than a tablebase can hold");
+            }
+            long solved = this.pool.invoke(new PassTask(table, pass, 0, 2 * size));
+            if (solved > 0) {
+                longest = pass;
+                quietPasses = 0;
+            }
+            else {
+                quietPasses++;
+            }
+        }
+        this.tables.put(name, values);
+        this.longestMates.put(name, longest);
+        return pass;
+    }
+
+    /**
+     * A table being built, with what a pass needs to look positions up
+     */
+    private record Table(int[] pieces, byte[][] values, long[] unsolved, Map<String, byte[][]> smaller) {
+        int size() {
+            return this.values[0].length;
+        }
+    }
+
+    private static final class PassTask extends RecursiveTask<Long> {
+        private final Table table;
+        private final int pass;
+        private final int from;
+        private final int to;
+
+        PassTask(Table table, int pass, int from, int to) {
+            this.table = table;
+            this.pass = pass;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Long compute() {
+            if (this.to - this.from > LEAF_SIZE) {
+                int middle = (this.from + this.to) >>> 1;
+                PassTask right = new PassTask(this.table, this.pass, middle, this.to);
+                right.fork();
+                long solved = new PassTask(this.table, this.pass, this.from, middle).compute();
+                return solved + right.join();
+            }
+            return new Worker(this.table).run(this.pass, this.from, this.to);
+        }
+    }
+
+    /**
+     * Solves the positions of one piece of a pass, on a board of its own
+     */
+    private static final class Worker {
+        private final Table table;
+        private final int[] pieces;
+        private final int count;
+        private final ChessBoard board = new ChessBoard();
+        private final MoveList moves = new MoveList();
+        private final int[] squares;
+        private final int[] next;
+        private final int[] smallerPieces;
+        private final int[] smallerSquares;
+        private int whiteKing;
+        private int blackKing;
+
+        Worker(Table table) {
+            this.table = table;
+            this.pieces = table.pieces();
+            this.count = this.pieces.length;
+            this.squares = new int[this.count];
+            this.next = new int[this.count];
+            this.smallerPieces = new int[this.count];
+            this.smallerSquares = new int[this.count];
+        }
+
+        /**
+         * @param from first position, counting white to move positions then black to move ones
+         * @return the number of positions solved
+         */
+        long run(int pass, int from, int to) {
+            int size = this.table.size();
+            long[] unsolved = this.table.unsolved();
+            long solved = 0;
+            for (int position = from; position < to; position++) {
+                if (pass > 0 && (unsolved[position >>> 6] & (1L << position)) == 0) {
+                    //Skip whole words of solved positions
+                    if ((position & 63) == 0 && unsolved[position >>> 6] == 0) {
+                        position += 63;
+                    }
+                    continue;
+                }
+                int side = position < size ? 0 : 1;
+                int index = position - side * size;
+                decode(index);
+                if (pass == 0 && !validSquares()) {
+                    this.table.values()[side][index] = (byte) Tablebase.ILLEGAL;
+                    continue;
+                }
+                place();
+                ChessGame.TeamColor turn = side == 0 ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+                int value = pass == 0 ? initial(turn, position) : solve(turn, pass);
+                clear();
+                if (value > 0) {
+                    this.table.values()[side][index] = (byte) value;
+                    unsolved[position >>> 6] &= ~(1L << position);
+                    solved++;
+                }
+            }
+            return solved;
+        }
+
+        //Marks illegal positions and checkmates, returns the value to store or 0 for none
+        private int initial(ChessGame.TeamColor turn, int position) {
+            ChessGame.TeamColor other = ChessGame.opponent(turn);
+            if (this.board.isSquareAttacked(this.board.kingSquare(other), turn)) {
+                return Tablebase.ILLEGAL;
+            }
+            this.moves.clear();
+            MoveGenerator.addLegalMoves(this.board, turn, 0, -1, -1L, this.moves);
+            if (this.moves.isEmpty()) {
+                //Checkmated now is a loss in 0 plies, stalemate stays a draw
+                return this.board.isSquareAttacked(this.board.kingSquare(turn), other) ? 1 : 0;
+            }
+            this.table.unsolved()[position >>> 6] |= 1L << position;
+            return 0;
+        }
+
+        //Odd passes look for a move to a lost position, even passes for every move going to a won one
+        private int solve(ChessGame.TeamColor turn, int pass) {
+            boolean lookForWin = (pass & 1) == 1;
+            this.moves.clear();
+            MoveGenerator.addLegalMoves(this.board, turn, 0, -1, -1L, this.moves);
+            for (int i = 0; i < this.moves.size(); i++) {
+                int value = successor(turn, this.moves.get(i));
+                int plies = value - 1;
+                //Positions solved in this same pass do not count yet
+                boolean known = value != 0 && plies < pass;
+                boolean lost = known && (plies & 1) == 0;
+                if (lookForWin && lost) {
+                    return pass + 1;
+                }
+                if (!lookForWin && (!known || lost)) {
+                    return 0;
+                }
+            }
+            return lookForWin ? 0 : pass + 1;
+        }
+
+        //Value of the position after the move, from this table or a smaller one
+        private int successor(ChessGame.TeamColor turn, int move) {
+            int from = Move.from(move);
+            int to = Move.to(move);
+            int whiteKing = this.whiteKing;
+            int blackKing = this.blackKing;
+            System.arraycopy(this.squares, 0, this.next, 0, this.count);
+            int captured = -1;
+            if ((move & Move.CAPTURE) != 0) {
+                for (int i = 0; i < this.count; i++) {
+                    if (this.next[i] == to) {
+                        captured = i;
+                    }
+                }
+            }
+            int mover = -1;
+            if (from == whiteKing) {
+                whiteKing = to;
+            }
+            else if (from == blackKing) {
+                blackKing = to;
+            }
+            else {
+                for (int i = 0; i < this.count; i++) {
+                    if (this.next[i] == from) {
+                        mover = i;
+                        this.next[i] = to;
+                    }
+                }
+            }
+            int side = turn == ChessGame.TeamColor.WHITE ? 1 : 0;
+            ChessPiece.PieceType promotion = Move.promotion(move);
+            if (captured < 0 && promotion == null) {
+                return this.table.values()[side][Tablebase.index(whiteKing, blackKing, this.next, this.count)] & 0xFF;
+            }
+            int smallerCount = 0;
+            for (int i = 0; i < this.count; i++) {
+                if (i != captured) {
+                    this.smallerPieces[smallerCount] = i == mover && promotion != null ? (this.pieces[i] / 6) * 6 + promotion.ordinal() : this.pieces[i];
+                    this.smallerSquares[smallerCount] = this.next[i];
+                    smallerCount++;
+                }
+            }
+            //Two bare kings can only draw
+            if (smallerCount == 0) {
+                return 0;
+            }
+            Tablebase.sortMaterial(this.smallerPieces, this.smallerSquares, smallerCount);
+            byte[][] smaller = this.table.smaller().get(Tablebase.materialName(Arrays.copyOf(this.smallerPieces, smallerCount)));
+            return smaller[side][Tablebase.index(whiteKing, blackKing, this.smallerSquares, smallerCount)] & 0xFF;
+        }
+
+        private void decode(int index) {
+            for (int i = this.count - 1; i >= 0; i--) {
+                this.squares[i] = index & 63;
+                index >>>= 6;
+            }
+            this.blackKing = index & 63;
+            this.whiteKing = index >>> 6;
+        }
+
+        //No two pieces on one square and no pawns on the first or last rank
+        private boolean validSquares() {
+            long used = Bitboards.bit(this.whiteKing) | Bitboards.bit(this.blackKing);
+            if (this.whiteKing == this.blackKing) {
+                return false;
+            }
+            for (int i = 0; i < this.count; i++) {
+                long bit = Bitboards.bit(this.squares[i]);
+                if ((used & bit) != 0) {
+                    return false;
+                }
+                used |= bit;
+                int rank = this.squares[i] >>> 3;
+                if (Tablebase.type(this.pieces[i]) == ChessPiece.PieceType.PAWN && (rank == 0 || rank == 7)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void place() {
+            this.board.placeAt(this.whiteKing, ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+            this.board.placeAt(this.blackKing, ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+            for (int i = 0; i < this.count; i++) {
+                this.board.placeAt(this.squares[i], ChessPiece.of(Tablebase.color(this.pieces[i]), Tablebase.type(this.pieces[i])));
+            }
+        }
+
+        private void clear() {
+            this.board.removeAt(this.whiteKing);
+            this.board.removeAt(this.blackKing);
+            for (int i = 0; i < this.count; i++) {
+                this.board.removeAt(this.squares[i]);
+            }
+        }
+    }
+}
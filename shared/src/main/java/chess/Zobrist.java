@@ -0,0 +1,53 @@
+package chess;
+
+/**
+ * Random 64-bit numbers for Zobrist hashing. A position's key is the XOR of
+ * the number for every piece on its square plus numbers for the side to
+ * move, castling rights and en passant file, so a move updates the key with
+ * a few XORs instead of hashing the whole board.
+ * <p>
+ * The numbers come from a fixed seed, so the same position has the same key
+ * in every process and keys can be stored on disk.
+ */
+final class Zobrist {
+
+    //Indexed by Bitboards.pieceIndex, then square
+    private static final long[][] PIECES = new long[12][64];
+    static final long BLACK_TO_MOVE;
+    //Indexed by the 4-bit castling rights mask
+    static final long[] CASTLING = new long[16];
+    //Indexed by the column (0-7) of the en passant square
+    static final long[] EN_PASSANT_FILE = new long[8];
+
+    private static long seed = 0x43533234304368L;
+
+    static {
+        for (int piece = 0; piece < 12; piece++) {
+            for (int square = 0; square < 64; square++) {
+                PIECES[piece][square] = next();
+            }
+        }
+        BLACK_TO_MOVE = next();
+        for (int i = 1; i < 16; i++) {
+            CASTLING[i] = next();
+        }
+        for (int i = 0; i < 8; i++) {
+            EN_PASSANT_FILE[i] = next();
+        }
+    }
+
+    private Zobrist() {
+    }
+
+    static long piece(int pieceIndex, int square) {
+        return PIECES[pieceIndex][square];
+    }
+
+    //SplitMix64, written out so the sequence never depends on the JDK version
+    private static long next() {
+        long z = (seed += 0x9E3779B97F4A7C15L);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,132 @@
+package chess.book;
+
+import chess.ChessGame;
+import chess.pgn.PgnGame;
+import chess.pgn.PgnReader;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Compiles an {@link OpeningBook} from games. Every position in the first
+ * moves of each game is counted with the move played from it, and a move's
+ * weight in the book is the number of games that played it. Moves played
+ * in fewer than the minimum number of games are left out, so one-off
+ * blunders do not end up in the book.
+ * <p>
+ * Usage: {@code java chess.book.BookBuilder <book> <pgn>... [--plies 20] [--min-games 2]}
+ */
+public final class BookBuilder {
+
+    //A position key with one of its moves
+    private record Entry(long key, int move) {
+    }
+
+    private final int maxPlies;
+    private final int minGames;
+    private final Map<Entry, Integer> counts = new ConcurrentHashMap<>();
+
+    /**
+     * @param maxPlies how many moves (plies) of each game to count
+     * @param minGames fewest games a move needs to be in the book
+     */
+    public BookBuilder(int maxPlies, int minGames) {
+        this.maxPlies = maxPlies;
+        this.minGames = minGames;
+    }
+
+    /**
+     * Counts the opening moves of one game. Safe to call from many threads at once.
+     */
+    public void add(PgnGame game) {
+        ChessGame position = game.startingPosition();
+        int plies = Math.min(this.maxPlies, game.getMoveCount());
+        for (int ply = 0; ply < plies; ply++) {
+            int move = game.getMove(ply);
+            this.counts.merge(new Entry(position.positionKey(), move), 1, Integer::sum);
+            position.doMove(move);
+        }
+    }
+
+    /**
+     * Counts every game of a PGN file, reading it on the pool
+     */
+    public PgnReader.Result addAll(Path pgn, ForkJoinPool pool) throws IOException {
+        return PgnReader.readParallel(pgn, pool, this::add);
+    }
+
+    /**
+     * Writes the book, sorted for {@link OpeningBook}'s binary search
+     *
+     * @return the number of book moves written
+     */
+    public int write(Path file) throws IOException {
+        List<Map.Entry<Entry, Integer>> entries = new ArrayList<>();
+        for (Map.Entry<Entry, Integer> entry : this.counts.entrySet()) {
+            if (entry.getValue() >= this.minGames) {
+                entries.add(entry);
+            }
+        }
+        entries.sort(Comparator.<Map.Entry<Entry, Integer>>comparingLong(entry -> entry.getKey().key())
+                .thenComparing(Map.Entry::getValue, Comparator.reverseOrder())
+                .thenComparingInt(entry -> entry.getKey().move()));
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(OpeningBook.MAGIC);
+            out.writeInt(OpeningBook.RECORD_BYTES);
+            out.writeLong(entries.size());
+            for (Map.Entry<Entry, Integer> entry : entries) {
+                out.writeLong(entry.getKey().key());
+                out.writeInt(entry.getKey().move());
+                out.writeInt(entry.getValue());
+            }
+        }
+        return entries.size();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: BookBuilder <book> <pgn>... [--plies 20] [--min-games 2]");
+            return;
+        }
+        List<Path> pgns = new ArrayList<>();
+        int plies = 20;
+        int minGames = 2;
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--plies") && i + 1 < args.length) {
+                plies = Integer.parseInt(args[++i]);
+            }
+            else if (args[i].equals("--min-games") && i + 1 < args.length) {
+                minGames = Integer.parseInt(args[++i]);
+            }
+            else if (args[i].startsWith("--")) {
+                System.out.println("Unknown argument: " + args[i]);
+                return;
+            }
+            else {
+                pgns.add(Paths.get(args[i]));
+            }
+        }
+        BookBuilder builder = new BookBuilder(plies, minGames);
+        ForkJoinPool pool = new ForkJoinPool();
+        try {
+            for (Path pgn : pgns) {
+                PgnReader.Result result = builder.addAll(pgn, pool);
+                System.out.println(pgn + ": " + result.games() + " games, " + result.skipped() + " skipped");
+            }
+        } finally {
+            pool.shutdown();
+        }
+        int written = builder.write(Paths.get(args[0]));
+        System.out.println("Book moves: " + written);
+    }
+}
@@ -0,0 +1,141 @@
+package chess.book;
+
+import chess.Move;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * An opening book read straight from a memory-mapped file. The file is a
+ * 16 byte header (magic number, record size and record count) followed by one 16 byte record per book move: the
+ * position's Zobrist key (see {@link chess.ChessGame#positionKey()}), the
+ * move packed as described in {@link Move}, and its weight. Records are
+ * sorted by key, and the moves of one position by weight, heaviest first,
+ * so a lookup is a binary search over the mapping.
+ * <p>
+ * Opening a book only maps the file, the operating system reads pages in
+ * as lookups touch them and shares them between every process that maps
+ * the same file. Lookups read the mapping directly and allocate nothing.
+ * There is no close, the mapping is released when the book is no longer
+ * referenced. Books are written by {@link BookBuilder}.
+ */
+public final class OpeningBook {
+
+    //"CBK1"
+    static final int MAGIC = 0x43424B31;
+    static final int HEADER_BYTES = 16;
+    static final int RECORD_BYTES = 16;
+
+    private final MappedByteBuffer buffer;
+    private final int size;
+
+    private OpeningBook(MappedByteBuffer buffer, int size) {
+        this.buffer = buffer;
+        this.size = size;
+    }
+
+    /**
+     * Maps a book file
+     *
+     * @throws IOException if the file cannot be read or is not a book
+     */
+    public static OpeningBook open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long bytes = channel.size();
+            if (bytes > Integer.MAX_VALUE) {
+                throw new IOException("Book is larger than 2 GB: " + file);
+            }
+            //The mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, bytes);
+            if (bytes < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != RECORD_BYTES) {
+                throw new IOException("Not an opening book: " + file);
+            }
+            long size = buffer.getLong(8);
+            if (size < 0 || HEADER_BYTES + size * RECORD_BYTES != bytes) {
+                throw new IOException("Opening book is truncated: " + file);
+            }
+            return new OpeningBook(buffer, (int) size);
+        }
+    }
+
+    /**
+     * @return the number of book moves, over all positions
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @return the index of the position's heaviest move, or -1 if the position is not in the book.
+     * The position's other moves follow it, while {@link #key(int)} is the same.
+     */
+    public int find(long key) {
+        int low = 0;
+        int high = this.size;
+        //Find the first record whose key is not less than the one asked for
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (key(middle) < key) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        return low < this.size && key(low) == key ? low : -1;
+    }
+
+    public long key(int index) {
+        return this.buffer.getLong(offset(index));
+    }
+
+    public int move(int index) {
+        return this.buffer.getInt(offset(index) + 8);
+    }
+
+    public int weight(int index) {
+        return this.buffer.getInt(offset(index) + 12);
+    }
+
+    /**
+     * @return the position's heaviest move, or {@link Move#NONE} if the position is not in the book
+     */
+    public int bestMove(long key) {
+        int index = find(key);
+        return index < 0 ? Move.NONE : move(index);
+    }
+
+    /**
+     * Chooses one of the position's moves with a chance in proportion to its
+     * weight, so games do not always follow the same line
+     *
+     * @param random any random number, for example from {@link java.util.concurrent.ThreadLocalRandom}
+     * @return the move, or {@link Move#NONE} if the position is not in the book
+     */
+    public int pickMove(long key, long random) {
+        int first = find(key);
+        if (first < 0) {
+            return Move.NONE;
+        }
+        long total = 0;
+        for (int i = first; i < this.size && key(i) == key; i++) {
+            total += weight(i);
+        }
+        if (total == 0) {
+            return move(first);
+        }
+        long target = Math.floorMod(random, total);
+        int index = first;
+        for (long seen = weight(index); seen <= target; seen += weight(index)) {
+            index++;
+        }
+        return move(index);
+    }
+
+    private static int offset(int index) {
+        return HEADER_BYTES + index * RECORD_BYTES;
+    }
+}
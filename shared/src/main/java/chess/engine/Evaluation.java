@@ -0,0 +1,249 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame.TeamColor;
+import chess.ChessPiece;
+import chess.ChessPiece.PieceType;
+import chess.Move;
+
+/**
+ * Scores a position in centipawns (hundredths of a pawn) from the point of
+ * view of one team, so a search can compare positions it cannot play out to
+ * the end.
+ * <p>
+ * The score is material plus a bonus for each piece's square, with one set
+ * of square tables for the middlegame and one for the endgame. The two
+ * scores are blended by how much material is left (the phase), so for
+ * example the king is kept safe while queens are on the board and walks to
+ * the centre once they are gone.
+ * <p>
+ * A search does not rescan the board at every node. An evaluation keeps a
+ * stack of running totals, one entry per ply, and each move only adds and
+ * removes the few pieces it changes, see {@link #doMove(ChessBoard, int)}.
+ * {@link #evaluate(ChessBoard, TeamColor)} scans the whole board and is kept
+ * for checking the running totals.
+ */
+final class Evaluation {
+
+    //Indexed by piece type ordinal, kings are never taken so they count for nothing
+    static final int[] PIECE_VALUES = {0, 900, 330, 320, 500, 100, 0};
+    //How much each piece type counts towards the middlegame, the starting position is MAX_PHASE
+    private static final int[] PHASE_WEIGHTS = {0, 4, 1, 1, 2, 0, 0};
+    private static final int MAX_PHASE = 24;
+
+    //Square tables as seen from white's side, rank 8 first. Black uses them mirrored.
+    private static final int[] KING_MIDGAME = {
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -20, -30, -30, -40, -40, -30, -30, -20,
+            -10, -20, -20, -20, -20, -20, -20, -10,
+            20, 20, 0, 0, 0, 0, 20, 20,
+            20, 30, 10, 0, 0, 10, 30, 20};
+    private static final int[] KING_ENDGAME = {
+            -50, -40, -30, -20, -20, -30, -40, -50,
+            -30, -20, -10, 0, 0, -10, -20, -30,
+            -30, -10, 20, 30, 30, 20, -10, -30,
+            -30, -10, 30, 40, 40, 30, -10, -30,
+            -30, -10, 30, 40, 40, 30, -10, -30,
+            -30, -10, 20, 30, 30, 20, -10, -30,
+            -30, -30, 0, 0, 0, 0, -30, -30,
+            -50, -30, -30, -30, -30, -30, -30, -50};
+    private static final int[] QUEEN = {
+            -20, -10, -10, -5, -5, -10, -10, -20,
+            -10, 0, 0, 0, 0, 0, 0, -10,
+            -10, 0, 5, 5, 5, 5, 0, -10,
+            -5, 0, 5, 5, 5, 5, 0, -5,
+            0, 0, 5, 5, 5, 5, 0, -5,
+            -10, 5, 5, 5, 5, 5, 0, -10,
+            -10, 0, 5, 0, 0, 0, 0, -10,
+            -20, -10, -10, -5, -5, -10, -10, -20};
+    private static final int[] BISHOP = {
+            -20, -10, -10, -10, -10, -10, -10, -20,
+            -10, 0, 0, 0, 0, 0, 0, -10,
+            -10, 0, 5, 10, 10, 5, 0, -10,
+            -10, 5, 5, 10, 10, 5, 5, -10,
+            -10, 0, 10, 10, 10, 10, 0, -10,
+            -10, 10, 10, 10, 10, 10, 10, -10,
+            -10, 5, 0, 0, 0, 0, 5, -10,
+            -20, -10, -10, -10, -10, -10, -10, -20};
+    private static final int[] KNIGHT = {
+            -50, -40, -30, -30, -30, -30, -40, -50,
+            -40, -20, 0, 0, 0, 0, -20, -40,
+            -30, 0, 10, 15, 15, 10, 0, -30,
+            -30, 5, 15, 20, 20, 15, 5, -30,
+            -30, 0, 15, 20, 20, 15, 0, -30,
+            -30, 5, 10, 15, 15, 10, 5, -30,
+            -40, -20, 0, 5, 5, 0, -20, -40,
+            -50, -40, -30, -30, -30, -30, -40, -50};
+    private static final int[] ROOK = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            5, 10, 10, 10, 10, 10, 10, 5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            0, 0, 0, 5, 5, 0, 0, 0};
+    private static final int[] PAWN_MIDGAME = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            50, 50, 50, 50, 50, 50, 50, 50,
+            10, 10, 20, 30, 30, 20, 10, 10,
+            5, 5, 10, 25, 25, 10, 5, 5,
+            0, 0, 0, 20, 20, 0, 0, 0,
+            5, -5, -10, 0, 0, -10, -5, 5,
+            5, 10, 10, -20, -20, 10, 10, 5,
+            0, 0, 0, 0, 0, 0, 0, 0};
+    //In the endgame a pawn is worth more the closer it is to promoting
+    private static final int[] PAWN_ENDGAME = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            80, 80, 80, 80, 80, 80, 80, 80,
+            50, 50, 50, 50, 50, 50, 50, 50,
+            30, 30, 30, 30, 30, 30, 30, 30,
+            15, 15, 15, 15, 15, 15, 15, 15,
+            5, 5, 5, 5, 5, 5, 5, 5,
+            0, 0, 0, 0, 0, 0, 0, 0,
+            0, 0, 0, 0, 0, 0, 0, 0};
+
+    //Material plus square bonus for each piece (color ordinal * 6 + type ordinal) on each square, positive for white
+    private static final int[][] MIDGAME = new int[12][64];
+    private static final int[][] ENDGAME = new int[12][64];
+
+    static {
+        int[][] midgame = {KING_MIDGAME, QUEEN, BISHOP, KNIGHT, ROOK, PAWN_MIDGAME};
+        int[][] endgame = {KING_ENDGAME, QUEEN, BISHOP, KNIGHT, ROOK, PAWN_ENDGAME};
+        for (int type = 0; type < 6; type++) {
+            for (int square = 0; square < 64; square++) {
+                //The tables list rank 8 first, so white's square is flipped and black's is already mirrored
+                MIDGAME[type][square] = PIECE_VALUES[type] + midgame[type][square ^ 56];
+                ENDGAME[type][square] = PIECE_VALUES[type] + endgame[type][square ^ 56];
+                MIDGAME[6 + type][square] = -(PIECE_VALUES[type] + midgame[type][square]);
+                ENDGAME[6 + type][square] = -(PIECE_VALUES[type] + endgame[type][square]);
+            }
+        }
+    }
+
+    //Running totals for white, one entry per move played since reset
+    private final int[] midgame;
+    private final int[] endgame;
+    private final int[] phase;
+    private int ply;
+
+    /**
+     * @param maxPly most moves that will be played on top of the position
+     */
+    Evaluation(ChessBoard board, int maxPly) {
+        this.midgame = new int[maxPly + 1];
+        this.endgame = new int[maxPly + 1];
+        this.phase = new int[maxPly + 1];
+        reset(board);
+    }
+
+    /**
+     * Starts again from the board's position with a full scan
+     */
+    void reset(ChessBoard board) {
+        this.ply = 0;
+        this.midgame[0] = 0;
+        this.endgame[0] = 0;
+        this.phase[0] = 0;
+        for (int square = 0; square < 64; square++) {
+            ChessPiece piece = board.pieceAt(square);
+            if (piece != null) {
+                add(index(piece), square);
+            }
+        }
+    }
+
+    /**
+     * Updates the totals for a move, called before the move is played on the
+     * board
+     *
+     * @param move a generated move packed as described in {@link Move}, with its flags
+     */
+    void doMove(ChessBoard board, int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int index = this.ply++;
+        this.midgame[index + 1] = this.midgame[index];
+        this.endgame[index + 1] = this.endgame[index];
+        this.phase[index + 1] = this.phase[index];
+
+        ChessPiece piece = board.pieceAt(from);
+        int moved = index(piece);
+        if ((move & Move.CAPTURE) != 0) {
+            //An en passant capture takes the pawn beside the start square, not one on the end square
+            int captureSquare = (move & Move.EN_PASSANT) != 0 ? to + (piece.getTeamColor() == TeamColor.WHITE ? -8 : 8) : to;
+            remove(index(board.pieceAt(captureSquare)), captureSquare);
+        }
+        remove(moved, from);
+        PieceType promotion = Move.promotion(move);
+        add(promotion == null ? moved : moved - PieceType.PAWN.ordinal() + promotion.ordinal(), to);
+        if ((move & Move.CASTLE) != 0) {
+            int rookFrom = to > from ? from + 3 : from - 4;
+            int rook = moved - PieceType.KING.ordinal() + PieceType.ROOK.ordinal();
+            remove(rook, rookFrom);
+            add(rook, (from + to) / 2);
+        }
+    }
+
+    /**
+     * Goes back to the totals before the last {@link #doMove(ChessBoard, int)}
+     */
+    void undoMove() {
+        this.ply--;
+    }
+
+    /**
+     * @return the score of the current position for the team, positive when it is ahead
+     */
+    int evaluate(TeamColor team) {
+        int score = taper(this.midgame[this.ply], this.endgame[this.ply], this.phase[this.ply]);
+        return team == TeamColor.WHITE ? score : -score;
+    }
+
+    /**
+     * Scores the board from scratch, for checking the running totals
+     *
+     * @return the score for the team, positive when it is ahead
+     */
+    static int evaluate(ChessBoard board, TeamColor team) {
+        int midgame = 0;
+        int endgame = 0;
+        int phase = 0;
+        for (int square = 0; square < 64; square++) {
+            ChessPiece piece = board.pieceAt(square);
+            if (piece != null) {
+                int index = index(piece);
+                midgame += MIDGAME[index][square];
+                endgame += ENDGAME[index][square];
+                phase += PHASE_WEIGHTS[index % 6];
+            }
+        }
+        int score = taper(midgame, endgame, phase);
+        return team == TeamColor.WHITE ? score : -score;
+    }
+
+    //Blends the two scores, promotions can take the phase above the starting position's
+    private static int taper(int midgame, int endgame, int phase) {
+        phase = Math.min(phase, MAX_PHASE);
+        return (midgame * phase + endgame * (MAX_PHASE - phase)) / MAX_PHASE;
+    }
+
+    private static int index(ChessPiece piece) {
+        return piece.getTeamColor().ordinal() * 6 + piece.getPieceType().ordinal();
+    }
+
+    private void add(int index, int square) {
+        this.midgame[this.ply] += MIDGAME[index][square];
+        this.endgame[this.ply] += ENDGAME[index][square];
+        this.phase[this.ply] += PHASE_WEIGHTS[index % 6];
+    }
+
+    private void remove(int index, int square) {
+        this.midgame[this.ply] -= MIDGAME[index][square];
+        this.endgame[this.ply] -= ENDGAME[index][square];
+        this.phase[this.ply] -= PHASE_WEIGHTS[index % 6];
+    }
+}
@@ -0,0 +1,57 @@
+package chess.engine;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * A {@link TranspositionTable} many search threads can share without locks.
+ * <p>
+ * Each slot is two longs: the key XOR'ed with the entry, then the entry.
+ * Each long is read and written atomically, but two threads writing the
+ * same slot at once can leave one thread's key word next to the other's
+ * entry. A probe XORs the two words back together and only accepts the
+ * entry if that gives the key it asked for, so a mixed slot reads as empty
+ * instead of as a wrong position. Writes always replace what is in the slot.
+ */
+public final class LockFreeTable implements TranspositionTable {
+
+    //Opaque access is enough: each long must not tear, but no ordering between slots is needed
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final long[] slots;
+    private final long mask;
+
+    /**
+     * @param bytes memory to use, rounded down to a power of two (at least 16 bytes)
+     */
+    public LockFreeTable(long bytes) {
+        long entries = Long.highestOneBit(Math.max(bytes / 16, 1));
+        if (entries > 1 << 29) {
+            throw new IllegalArgumentException("A table can hold at most 2^29 entries");
+        }
+        this.slots = new long[(int) entries * 2];
+        this.mask = entries - 1;
+    }
+
+    @Override
+    public long probe(long key) {
+        int index = (int) (key & this.mask) << 1;
+        long check = (long) SLOTS.getOpaque(this.slots, index);
+        long entry = (long) SLOTS.getOpaque(this.slots, index + 1);
+        return (check ^ entry) == key ? entry : 0;
+    }
+
+    @Override
+    public void store(long key, long entry) {
+        int index = (int) (key & this.mask) << 1;
+        SLOTS.setOpaque(this.slots, index, key ^ entry);
+        SLOTS.setOpaque(this.slots, index + 1, entry);
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < this.slots.length; i++) {
+            SLOTS.setOpaque(this.slots, i, 0L);
+        }
+    }
+}
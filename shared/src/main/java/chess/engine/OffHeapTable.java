@@ -0,0 +1,168 @@
+package chess.engine;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link TranspositionTable} kept in direct byte buffers outside the Java
+ * heap, so a table of several gigabytes adds nothing for the garbage
+ * collector to scan or copy. The memory is allocated once, when the table
+ * is created, and is released when the table is no longer referenced.
+ * <p>
+ * Entries are grouped in buckets of four, 64 bytes, so one probe reads one
+ * cache line. A slot is two longs like in {@link LockFreeTable}: the key
+ * XOR'ed with the entry, then the entry, so many threads can share the
+ * table without locks. The bucket is chosen by the low bits of the key,
+ * which frees the low byte of the first long to hold the number of the
+ * search that stored the entry (its age).
+ * <p>
+ * When a bucket has no slot for the key being stored, the entry replaced
+ * is the one with the lowest depth, counting every search it is older
+ * than the current one as {@link #AGE_WEIGHT} plies less. Results from old
+ * searches age out, while deep results from the current one are kept.
+ */
+public final class OffHeapTable implements TranspositionTable {
+
+    /**
+     * Counters since the table was created or last cleared
+     *
+     * @param probes     lookups
+     * @param hits       lookups that found an entry for their key
+     * @param collisions lookups that missed although every slot of the bucket held another position
+     * @param overwrites stores that replaced another position's entry
+     */
+    public record Stats(long probes, long hits, long collisions, long overwrites) {
+        public double hitRate() {
+            return this.probes == 0 ? 0 : (double) this.hits / this.probes;
+        }
+    }
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final int SLOTS_PER_BUCKET = 4;
+    private static final int BUCKET_BYTES = SLOTS_PER_BUCKET * 16;
+    //Buffers are at most 1 GB, a whole number of buckets each
+    private static final int CHUNK_BYTES = 1 << 30;
+    private static final long AGE_MASK = 0xFF;
+    //Plies of depth one search of age is worth when choosing an entry to replace
+    static final int AGE_WEIGHT = 4;
+
+    private final ByteBuffer[] chunks;
+    private final long bucketMask;
+    private final int bucketsPerChunkShift;
+    private volatile int age;
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder collisions = new LongAdder();
+    private final LongAdder overwrites = new LongAdder();
+
+    /**
+     * @param bytes memory to use, rounded down to a power of two, at least 16 KB
+     */
+    public OffHeapTable(long bytes) {
+        //The age byte replaces the low 8 bits of the key check, so the bucket number has to cover them
+        long buckets = Long.highestOneBit(Math.max(bytes / BUCKET_BYTES, 256));
+        long total = buckets * BUCKET_BYTES;
+        int chunkBytes = (int) Math.min(total, CHUNK_BYTES);
+        this.chunks = new ByteBuffer[(int) (total / chunkBytes)];
+        for (int i = 0; i < this.chunks.length; i++) {
+            this.chunks[i] = ByteBuffer.allocateDirect(chunkBytes).order(ByteOrder.nativeOrder());
+        }
+        this.bucketMask = buckets - 1;
+        this.bucketsPerChunkShift = Integer.numberOfTrailingZeros(chunkBytes / BUCKET_BYTES);
+    }
+
+    /**
+     * @return bytes of memory the table uses
+     */
+    public long sizeBytes() {
+        return (this.bucketMask + 1) * BUCKET_BYTES;
+    }
+
+    @Override
+    public long probe(long key) {
+        this.probes.increment();
+        ByteBuffer chunk = chunk(key);
+        int offset = offset(key);
+        boolean full = true;
+        for (int i = 0; i < SLOTS_PER_BUCKET; i++, offset += 16) {
+            long check = (long) LONGS.getOpaque(chunk, offset);
+            long entry = (long) LONGS.getOpaque(chunk, offset + 8);
+            if (entry != 0 && sameKey(check, entry, key)) {
+                this.hits.increment();
+                return entry;
+            }
+            full &= entry != 0;
+        }
+        if (full) {
+            this.collisions.increment();
+        }
+        return 0;
+    }
+
+    @Override
+    public void store(long key, long entry) {
+        ByteBuffer chunk = chunk(key);
+        int base = offset(key);
+        int age = this.age;
+        int target = -1;
+        int worst = Integer.MAX_VALUE;
+        for (int i = 0; i < SLOTS_PER_BUCKET; i++) {
+            int offset = base + i * 16;
+            long check = (long) LONGS.getOpaque(chunk, offset);
+            long old = (long) LONGS.getOpaque(chunk, offset + 8);
+            if (old == 0 || sameKey(check, old, key)) {
+                target = offset;
+                worst = Integer.MIN_VALUE;
+                break;
+            }
+            int value = TableEntry.depth(old) - AGE_WEIGHT * (int) ((age - check) & AGE_MASK);
+            if (value < worst) {
+                worst = value;
+                target = offset;
+            }
+        }
+        if (worst != Integer.MIN_VALUE) {
+            this.overwrites.increment();
+        }
+        LONGS.setOpaque(chunk, target, ((key ^ entry) & ~AGE_MASK) | age);
+        LONGS.setOpaque(chunk, target + 8, entry);
+    }
+
+    @Override
+    public void newSearch() {
+        this.age = (this.age + 1) & (int) AGE_MASK;
+    }
+
+    @Override
+    public void clear() {
+        for (ByteBuffer chunk : this.chunks) {
+            for (int offset = 0; offset < chunk.capacity(); offset += 8) {
+                LONGS.setOpaque(chunk, offset, 0L);
+            }
+        }
+        this.probes.reset();
+        this.hits.reset();
+        this.collisions.reset();
+        this.overwrites.reset();
+    }
+
+    public Stats stats() {
+        return new Stats(this.probes.sum(), this.hits.sum(), this.collisions.sum(), this.overwrites.sum());
+    }
+
+    //The low byte holds the age, the bucket number already matches the key's low bits
+    private static boolean sameKey(long check, long entry, long key) {
+        return ((check ^ entry ^ key) & ~AGE_MASK) == 0;
+    }
+
+    private ByteBuffer chunk(long key) {
+        return this.chunks[(int) ((key & this.bucketMask) >>> this.bucketsPerChunkShift)];
+    }
+
+    private int offset(long key) {
+        return (int) (key & this.bucketMask & ((1L << this.bucketsPerChunkShift) - 1)) * BUCKET_BYTES;
+    }
+}
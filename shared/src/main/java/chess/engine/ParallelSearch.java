@@ -0,0 +1,134 @@
+package chess.engine;
+
+import chess.ChessGame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Searches one position on several threads at once (lazy SMP). Every
+ * thread runs a full {@link Search} of the same root, and they only
+ * cooperate through a shared {@link TranspositionTable}: what one thread
+ * stores, the others find and skip. Helper threads start on different
+ * root moves and every second one a depth ahead, so they fill the table
+ * with results the main search is about to need. The main search runs on
+ * the calling thread with the given limits, and its result is the one
+ * returned; the helpers are stopped as soon as it finishes.
+ * <p>
+ * Usage: {@code java chess.engine.ParallelSearch <depth> [--fen "<position>"] [--threads 1,2,4,8]}
+ * prints the time to reach the depth for each thread count.
+ */
+public final class ParallelSearch {
+
+    private final ChessGame game;
+    private final Search.Limits limits;
+    private final TranspositionTable table;
+    private final ForkJoinPool pool;
+    private final List<Search> searches = new ArrayList<>();
+
+    /**
+     * @param game   the position to search, which is copied and never changed
+     * @param table  table shared by every thread, it must be safe to use from many threads like {@link LockFreeTable}
+     * @param pool   pool to run helpers on, its parallelism is the number of threads used including the calling thread
+     */
+    public ParallelSearch(ChessGame game, Search.Limits limits, TranspositionTable table, ForkJoinPool pool) {
+        this.game = game;
+        this.limits = limits;
+        this.table = table;
+        this.pool = pool;
+    }
+
+    /**
+     * Searches until the main search reaches a limit
+     *
+     * @return the main search's best move, score and nodes per depth, with the nodes of every thread
+     */
+    public Search.Result run() {
+        long start = System.nanoTime();
+        //Copy the game for every thread here, so the given game is only read by the calling thread
+        this.table.newSearch();
+        Search main = new Search(this.game, this.limits, this.table, 0, false);
+        List<Search> helpers = new ArrayList<>();
+        for (int i = 1; i < this.pool.getParallelism(); i++) {
+            helpers.add(new Search(this.game, Search.Limits.depth(Search.MAX_PLY), this.table, i, false));
+        }
+        synchronized (this.searches) {
+            this.searches.add(main);
+            this.searches.addAll(helpers);
+        }
+        List<ForkJoinTask<Search.Result>> tasks = new ArrayList<>();
+        Search.Result result;
+        try {
+            for (Search helper : helpers) {
+                tasks.add(this.pool.submit(helper::run));
+            }
+            result = main.run();
+        } finally {
+            helpers.forEach(Search::stop);
+        }
+        long nodes = result.nodes();
+        long quiescenceNodes = result.quiescenceNodes();
+        for (ForkJoinTask<Search.Result> task : tasks) {
+            Search.Result helperResult = task.join();
+            nodes += helperResult.nodes();
+            quiescenceNodes += helperResult.quiescenceNodes();
+        }
+        synchronized (this.searches) {
+            this.searches.clear();
+        }
+        return new Search.Result(result.bestMove(), result.score(), result.depth(), nodes, quiescenceNodes,
+                result.depthNodes(), System.nanoTime() - start);
+    }
+
+    /**
+     * Ends a running search as soon as every thread next checks its limits.
+     * Safe to call from any thread.
+     */
+    public void stop() {
+        synchronized (this.searches) {
+            this.searches.forEach(Search::stop);
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: ParallelSearch <depth> [--fen \"<position>\"] [--threads 1,2,4,8]");
+            return;
+        }
+        int depth = Integer.parseInt(args[0]);
+        ChessGame game = new ChessGame();
+        String threadCounts = "1,2,4,8";
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--fen") && i + 1 < args.length) {
+                game = ChessGame.fromFen(args[++i]);
+            }
+            else if (args[i].equals("--threads") && i + 1 < args.length) {
+                threadCounts = args[++i];
+            }
+            else {
+                System.out.println("Unknown argument: " + args[i]);
+                return;
+            }
+        }
+        //One untimed search first, so compiling the search code is not counted against the first thread count
+        new Search(game, Search.Limits.depth(depth)).run();
+        long baseline = 0;
+        for (String count : threadCounts.split(",")) {
+            int threads = Integer.parseInt(count.trim());
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                Search.Result result = new ParallelSearch(game, Search.Limits.depth(depth), new LockFreeTable(64L << 20), pool).run();
+                if (baseline == 0) {
+                    baseline = result.nanos();
+                }
+                System.out.printf("Threads: %d  Time to depth %d: %d ms  Speedup: %.2f  Nodes per second: %d  Best move: %s%n",
+                        threads, result.depth(), result.nanos() / 1_000_000, (double) baseline / result.nanos(),
+                        result.nodesPerSecond(), result.bestChessMove());
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+}
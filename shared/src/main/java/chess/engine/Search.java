@@ -0,0 +1,621 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.Move;
+import chess.MoveList;
+
+import java.util.Arrays;
+
+/**
+ * Chooses a move with a negamax alpha-beta search. The search deepens one
+ * move at a time (iterative deepening) until a limit is reached, so there
+ * is always a best move from the last finished depth to return, and each
+ * depth after the first starts with a narrow window around the previous
+ * score (an aspiration window) that is only widened if the score falls
+ * outside it. At the end of each line only captures are searched
+ * (quiescence search), so a position is never scored in the middle of an
+ * exchange.
+ * <p>
+ * How fast alpha-beta prunes depends on searching the best move first, so
+ * moves are tried in this order: the move the table remembers for the
+ * position, captures from the most valuable victim with the least valuable
+ * attacker (MVV-LVA), the two quiet moves that most recently caused a
+ * cutoff at the same ply (killers), then the other quiet moves by how often
+ * they caused cutoffs anywhere in the search (history).
+ * <p>
+ * A search plays on its own copy of the game, never the game it was given,
+ * and only holds a few small arrays, so many searches can run side by side
+ * in a server. Time and node limits are hard: the node count is checked at
+ * every node and the clock every few thousand, and the current depth is
+ * abandoned as soon as either runs out. {@link #stop()} or interrupting the
+ * searching thread ends it the same way.
+ * <p>
+ * Results are kept in a {@link TranspositionTable}, which can be shared by
+ * several searches of the same game, see {@link ParallelSearch}.
+ * <p>
+ * Usage: {@code java chess.engine.Search <depth> [--fen "<position>"] [--without quiescence,table,mvv-lva,killers,history]}
+ * prints the nodes each depth took and the branching factor, with the
+ * named features turned off.
+ */
+public final class Search {
+
+    /**
+     * How long a search may run, whichever limit is reached first ends it
+     *
+     * @param maxDepth    deepest depth in moves (plies) to search
+     * @param timeMillis  time budget, 0 for none
+     * @param maxNodes    node budget, 0 for none
+     */
+    public record Limits(int maxDepth, long timeMillis, long maxNodes) {
+        public static Limits depth(int depth) {
+            return new Limits(depth, 0, 0);
+        }
+
+        public static Limits time(long millis) {
+            return new Limits(MAX_PLY, millis, 0);
+        }
+
+        public static Limits nodes(long nodes) {
+            return new Limits(MAX_PLY, 0, nodes);
+        }
+    }
+
+    /**
+     * The outcome of a search
+     *
+     * @param bestMove the move to play packed as described in {@link Move}, or {@link Move#NONE} if there are no legal moves
+     * @param score    centipawns for the team to move, see {@link #isMate()}
+     * @param depth           deepest depth that was searched to the end
+     * @param nodes           positions visited
+     * @param quiescenceNodes the part of the nodes visited by quiescence search
+     * @param depthNodes      nodes spent on each depth, depth 1 first, for the depths that finished
+     * @param nanos           time taken
+     */
+    public record Result(int bestMove, int score, int depth, long nodes, long quiescenceNodes, long[] depthNodes, long nanos) {
+        public ChessMove bestChessMove() {
+            return this.bestMove == Move.NONE ? null : Move.toChessMove(this.bestMove);
+        }
+
+        /**
+         * @return True if the score is a forced checkmate, for either team
+         */
+        public boolean isMate() {
+            return Math.abs(this.score) > MATE - MAX_PLY;
+        }
+
+        public long nodesPerSecond() {
+            return this.nanos == 0 ? 0 : this.nodes * 1_000_000_000L / this.nanos;
+        }
+
+        /**
+         * @return the nodes it took to finish every depth up to this one
+         */
+        public long nodesToDepth(int depth) {
+            long total = 0;
+            for (int i = 0; i < depth && i < this.depthNodes.length; i++) {
+                total += this.depthNodes[i];
+            }
+            return total;
+        }
+
+        /**
+         * @return how many times more nodes the last depth took than the one before it
+         * (the effective branching factor), or 0 if fewer than two depths finished
+         */
+        public double branchingFactor() {
+            int last = this.depthNodes.length - 1;
+            return last < 1 || this.depthNodes[last - 1] == 0 ? 0 : (double) this.depthNodes[last] / this.depthNodes[last - 1];
+        }
+    }
+
+    /**
+     * Search features that can be turned off with {@link #disable(int)}, to
+     * measure what each one is worth
+     */
+    static final int QUIESCENCE = 1;
+    static final int TABLE_MOVE = 2;
+    static final int MVV_LVA = 4;
+    static final int KILLERS = 8;
+    static final int HISTORY = 16;
+
+    /**
+     * Score of being checkmated now, mates further away score closer to zero
+     */
+    public static final int MATE = 32_000;
+    static final int MAX_PLY = 64;
+    private static final int INFINITY = MATE + 1;
+    //Half width of the first aspiration window, in centipawns
+    private static final int ASPIRATION_WINDOW = 50;
+    //The clock is read once per this many nodes (a power of two)
+    private static final int CHECK_INTERVAL = 4096;
+    //Table size for searches that are not given a table
+    private static final long DEFAULT_TABLE_BYTES = 4L << 20;
+    //Order scores, the table move comes first, then captures and promotions, then killers, then history
+    private static final int TABLE_MOVE_SCORE = Integer.MAX_VALUE;
+    private static final int CAPTURE_SCORE = 1 << 26;
+    private static final int KILLER_SCORE = 1 << 24;
+    //History scores are halved once one passes this, so they stay below the killers
+    private static final int HISTORY_LIMIT = 1 << 20;
+
+    private final ChessGame game;
+    private final Limits limits;
+    private final TranspositionTable table;
+    //0 for a search on its own or the main search of a parallel search, helpers vary their order by their number
+    private final int helper;
+    //Whether run() tells the table a new search has started, a parallel search does it once for all its threads
+    private final boolean ownsTable;
+    //One list per ply so a list is never reused while it is being walked
+    private final MoveList[] moveLists = new MoveList[MAX_PLY + 1];
+    //Running evaluation of the game copy, moved along with it by play and takeBack
+    private final Evaluation evaluation;
+    //Order score of each move in moveLists, per ply
+    private final int[][] moveScores = new int[MAX_PLY + 1][];
+    //Two killer moves per ply, the newest first
+    private final int[] killers = new int[2 * (MAX_PLY + 1)];
+    //Cutoff counts, indexed by team, start square and end square
+    private final int[] history = new int[2 * 64 * 64];
+    private int features = QUIESCENCE | TABLE_MOVE | MVV_LVA | KILLERS | HISTORY;
+    private long nodes;
+    private long quiescenceNodes;
+    private long deadline;
+    private volatile boolean stopped;
+    //Best move of the depth being searched, kept apart until the depth finishes
+    private int rootBest;
+
+    /**
+     * Creates a search with a small table of its own
+     *
+     * @param game   the position to search, which is copied and never changed. For a game
+     *               other threads are playing, pass {@code game.snapshot().toGame()}
+     * @param limits when to stop
+     */
+    public Search(ChessGame game, Limits limits) {
+        this(game, limits, new LockFreeTable(DEFAULT_TABLE_BYTES));
+    }
+
+    /**
+     * @param table table to keep results in, which may already hold results for this game
+     */
+    public Search(ChessGame game, Limits limits, TranspositionTable table) {
+        this(game, limits, table, 0, true);
+    }
+
+    Search(ChessGame game, Limits limits, TranspositionTable table, int helper, boolean ownsTable) {
+        if (limits.maxDepth() < 1) {
+            throw new IllegalArgumentException("Search depth must be at least 1");
+        }
+        this.game = new ChessGame(game);
+        this.limits = limits;
+        this.table = table;
+        this.helper = helper;
+        this.ownsTable = ownsTable;
+        this.evaluation = new Evaluation(this.game.getBoard(), MAX_PLY);
+        for (int i = 0; i < this.moveLists.length; i++) {
+            this.moveLists[i] = new MoveList();
+            this.moveScores[i] = new int[256];
+        }
+    }
+
+    /**
+     * Ends a running search as soon as it next checks its limits. Safe to
+     * call from any thread.
+     */
+    public void stop() {
+        this.stopped = true;
+    }
+
+    /**
+     * Turns off search features, for measuring what each one saves
+     *
+     * @param features any of {@link #QUIESCENCE}, {@link #TABLE_MOVE}, {@link #MVV_LVA}, {@link #KILLERS} and {@link #HISTORY}
+     */
+    void disable(int features) {
+        this.features &= ~features;
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: Search <depth> [--fen \"<position>\"] [--without quiescence,table,mvv-lva,killers,history]");
+            return;
+        }
+        int depth = Integer.parseInt(args[0]);
+        ChessGame game = new ChessGame();
+        int disabled = 0;
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--fen") && i + 1 < args.length) {
+                game = ChessGame.fromFen(args[++i]);
+            }
+            else if (args[i].equals("--without") && i + 1 < args.length) {
+                for (String feature : args[++i].split(",")) {
+                    switch (feature.trim()) {
+                        case "quiescence" -> disabled |= QUIESCENCE;
+                        case "table" -> disabled |= TABLE_MOVE;
+                        case "mvv-lva" -> disabled |= MVV_LVA;
+                        case "killers" -> disabled |= KILLERS;
+                        case "history" -> disabled |= HISTORY;
+                        default -> {
+                            System.out.println("Unknown feature: " + feature);
+                            return;
+                        }
+                    }
+                }
+            }
+            else {
+                System.out.println("Unknown argument: " + args[i]);
+                return;
+            }
+        }
+        Search search = new Search(game, Limits.depth(depth), new OffHeapTable(64L << 20));
+        search.disable(disabled);
+        Result result = search.run();
+        long[] depthNodes = result.depthNodes();
+        for (int i = 0; i < depthNodes.length; i++) {
+            System.out.printf("Depth %2d: %,12d nodes  %,14d to depth%s%n", i + 1, depthNodes[i], result.nodesToDepth(i + 1),
+                    i == 0 || depthNodes[i - 1] == 0 ? "" : String.format("  x%.2f", (double) depthNodes[i] / depthNodes[i - 1]));
+        }
+        System.out.println();
+        System.out.println("Best move: " + result.bestChessMove() + "  Score: " + result.score());
+        System.out.printf("Nodes: %,d (%.0f%% quiescence)%n", result.nodes(), result.nodes() == 0 ? 0.0 : 100.0 * result.quiescenceNodes() / result.nodes());
+        System.out.printf("Branching factor: %.2f%n", result.branchingFactor());
+        System.out.println("Time: " + result.nanos() / 1_000_000 + " ms");
+        System.out.println("Nodes per second: " + result.nodesPerSecond());
+    }
+
+    /**
+     * Searches until a limit is reached, on the calling thread
+     *
+     * @return the best move found and its score
+     */
+    public Result run() {
+        long start = System.nanoTime();
+        this.deadline = this.limits.timeMillis() > 0 ? start + this.limits.timeMillis() * 1_000_000L : Long.MAX_VALUE;
+        this.nodes = 0;
+        this.quiescenceNodes = 0;
+        if (this.ownsTable) {
+            this.table.newSearch();
+        }
+
+        MoveList rootMoves = new MoveList();
+        this.game.legalMoves(rootMoves);
+        if (rootMoves.isEmpty()) {
+            int score = this.game.isInCheck(this.game.getTeamTurn()) ? -MATE : 0;
+            return new Result(Move.NONE, score, 0, 0, 0, new long[0], System.nanoTime() - start);
+        }
+        //Helpers start on a different move and every second one a depth ahead, so threads spread over the tree
+        for (int i = 0; i < this.helper % rootMoves.size(); i++) {
+            moveToFront(rootMoves, rootMoves.get(rootMoves.size() - 1));
+        }
+        //Fall back on any legal move if not even the first depth finishes
+        int bestMove = rootMoves.get(0);
+        int bestScore = 0;
+        int depthDone = 0;
+        long[] depthNodes = new long[MAX_PLY];
+        int maxDepth = Math.min(this.limits.maxDepth(), MAX_PLY);
+        for (int depth = 1 + (this.helper & 1); depth <= maxDepth && !this.stopped; depth++) {
+            long nodesBefore = this.nodes;
+            int score = depthDone == 0 ? searchRoot(rootMoves, depth, -INFINITY, INFINITY) : aspirationSearch(rootMoves, depth, bestScore);
+            if (this.stopped) {
+                break;
+            }
+            bestMove = this.rootBest;
+            bestScore = score;
+            depthDone = depth;
+            depthNodes[depth - 1] = this.nodes - nodesBefore;
+            //Search the best move first next time, the others keep their order
+            moveToFront(rootMoves, bestMove);
+            //A forced mate will not get any better with more depth
+            if (Math.abs(score) >= MATE - depth) {
+                break;
+            }
+            //The next depth takes longer than all the ones before it, so do not start one that cannot finish
+            if (this.deadline != Long.MAX_VALUE && System.nanoTime() - start > (this.deadline - start) / 2) {
+                break;
+            }
+        }
+        return new Result(bestMove, bestScore, depthDone, this.nodes, this.quiescenceNodes,
+                Arrays.copyOf(depthNodes, depthDone), System.nanoTime() - start);
+    }
+
+    private int aspirationSearch(MoveList rootMoves, int depth, int previous) {
+        int window = ASPIRATION_WINDOW;
+        int alpha = Math.max(previous - window, -INFINITY);
+        int beta = Math.min(previous + window, INFINITY);
+        while (true) {
+            int score = searchRoot(rootMoves, depth, alpha, beta);
+            if (this.stopped) {
+                return score;
+            }
+            //Outside the window the score is only a bound, so search again with the window widened on that side
+            if (score <= alpha) {
+                window *= 4;
+                alpha = Math.max(previous - window, -INFINITY);
+            }
+            else if (score >= beta) {
+                window *= 4;
+                beta = Math.min(previous + window, INFINITY);
+            }
+            else {
+                return score;
+            }
+        }
+    }
+
+    private int searchRoot(MoveList rootMoves, int depth, int alpha, int beta) {
+        int best = -INFINITY;
+        for (int i = 0; i < rootMoves.size(); i++) {
+            int move = rootMoves.get(i);
+            play(move);
+            int score = -search(depth - 1, 1, -beta, -alpha);
+            takeBack();
+            if (this.stopped) {
+                return best;
+            }
+            if (score > best) {
+                best = score;
+                this.rootBest = move;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    private int search(int depth, int ply, int alpha, int beta) {
+        if (countNode()) {
+            return 0;
+        }
+        //A position seen before in this line can be repeated forever, so it is scored as a draw
+        if (this.game.getHalfmoveClock() >= 100 || this.game.repetitionCount() > 0) {
+            return 0;
+        }
+        if (depth == 0 || ply == MAX_PLY) {
+            return (this.features & QUIESCENCE) != 0 ? quiescence(ply, alpha, beta) : evaluate();
+        }
+        long key = this.game.positionKey();
+        long entry = this.table.probe(key);
+        int tableMove = Move.NONE;
+        if (entry != 0) {
+            tableMove = TableEntry.move(entry);
+            //A result from at least this deep can be used as it is, if its bound says enough
+            if (TableEntry.depth(entry) >= depth) {
+                int score = fromTable(TableEntry.score(entry), ply);
+                int bound = TableEntry.bound(entry);
+                if (bound == TableEntry.EXACT || (bound == TableEntry.LOWER && score >= beta) || (bound == TableEntry.UPPER && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+        MoveList moves = this.moveLists[ply];
+        this.game.legalMoves(moves);
+        if (moves.isEmpty()) {
+            //Checkmates closer to the root score higher, so the quickest mate is chosen
+            return this.game.isInCheck(this.game.getTeamTurn()) ? -MATE + ply : 0;
+        }
+        int[] scores = this.moveScores[ply];
+        scoreMoves(moves, scores, ply, tableMove);
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestMove = Move.NONE;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = pickMove(moves, scores, i);
+            play(move);
+            int score = -search(depth - 1, ply + 1, -beta, -alpha);
+            takeBack();
+            if (this.stopped) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                bestMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        if (!isNoisy(move)) {
+                            rememberCutoff(move, ply, depth);
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+        int bound = best >= beta ? TableEntry.LOWER : best > originalAlpha ? TableEntry.EXACT : TableEntry.UPPER;
+        this.table.store(key, TableEntry.pack(bestMove, bound, depth, toTable(best, ply)));
+        return best;
+    }
+
+    private void play(int move) {
+        this.evaluation.doMove(this.game.getBoard(), move);
+        this.game.doMove(move);
+    }
+
+    private void takeBack() {
+        this.game.undoMove();
+        this.evaluation.undoMove();
+    }
+
+    private int evaluate() {
+        int score = this.evaluation.evaluate(this.game.getTeamTurn());
+        //With assertions on (as in the tests) every running total is checked against a full scan
+        assert score == Evaluation.evaluate(this.game.getBoard(), this.game.getTeamTurn()) : "Running evaluation drifted at " + this.game.toFen();
+        return score;
+    }
+
+    /**
+     * Searches only captures and promotions until the position is quiet, so
+     * it is not scored halfway through an exchange. The team to move may
+     * also stop capturing (stand pat) and keep the static score, unless it is
+     * in check, then every move is searched.
+     */
+    private int quiescence(int ply, int alpha, int beta) {
+        if (countNode()) {
+            return 0;
+        }
+        this.quiescenceNodes++;
+        boolean inCheck = this.game.isInCheck(this.game.getTeamTurn());
+        int best = -INFINITY;
+        if (!inCheck) {
+            best = evaluate();
+            if (best >= beta || ply == MAX_PLY) {
+                return best;
+            }
+            alpha = Math.max(alpha, best);
+        }
+        else if (ply == MAX_PLY) {
+            return evaluate();
+        }
+        MoveList moves = this.moveLists[ply];
+        this.game.legalMoves(moves);
+        if (moves.isEmpty()) {
+            return inCheck ? -MATE + ply : 0;
+        }
+        if (!inCheck) {
+            keepNoisyMoves(moves);
+        }
+        int[] scores = this.moveScores[ply];
+        scoreMoves(moves, scores, ply, Move.NONE);
+        for (int i = 0; i < moves.size(); i++) {
+            int move = pickMove(moves, scores, i);
+            play(move);
+            int score = -quiescence(ply + 1, -beta, -alpha);
+            takeBack();
+            if (this.stopped) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    //Counts a node and checks the limits when due, returns true if the search has to stop
+    private boolean countNode() {
+        if (++this.nodes == this.limits.maxNodes() || (this.nodes & (CHECK_INTERVAL - 1)) == 0) {
+            checkLimits();
+        }
+        return this.stopped;
+    }
+
+    private static boolean isNoisy(int move) {
+        return (move & Move.CAPTURE) != 0 || Move.promotion(move) != null;
+    }
+
+    private static void keepNoisyMoves(MoveList moves) {
+        int kept = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (isNoisy(move)) {
+                moves.set(kept++, move);
+            }
+        }
+        moves.truncate(kept);
+    }
+
+    private void scoreMoves(MoveList moves, int[] scores, int ply, int tableMove) {
+        int historyBase = this.game.getTeamTurn().ordinal() << 12;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int score = 0;
+            if (move == tableMove && (this.features & TABLE_MOVE) != 0) {
+                score = TABLE_MOVE_SCORE;
+            }
+            else if (isNoisy(move)) {
+                score = CAPTURE_SCORE;
+                if ((this.features & MVV_LVA) != 0) {
+                    ChessPiece.PieceType promotion = Move.promotion(move);
+                    if ((move & Move.CAPTURE) != 0) {
+                        //An en passant capture has an empty end square, its victim is a pawn
+                        ChessPiece victim = this.game.getBoard().pieceAt(Move.to(move));
+                        int victimValue = Evaluation.PIECE_VALUES[victim == null ? ChessPiece.PieceType.PAWN.ordinal() : victim.getPieceType().ordinal()];
+                        int attacker = this.game.getBoard().pieceAt(Move.from(move)).getPieceType().ordinal();
+                        score += victimValue * 16 - Evaluation.PIECE_VALUES[attacker] / 16;
+                    }
+                    if (promotion != null) {
+                        score += Evaluation.PIECE_VALUES[promotion.ordinal()] * 16;
+                    }
+                }
+            }
+            else if ((this.features & KILLERS) != 0 && move == this.killers[2 * ply]) {
+                score = KILLER_SCORE + 1;
+            }
+            else if ((this.features & KILLERS) != 0 && move == this.killers[2 * ply + 1]) {
+                score = KILLER_SCORE;
+            }
+            else if ((this.features & HISTORY) != 0) {
+                score = this.history[historyBase | (Move.from(move) << 6) | Move.to(move)];
+            }
+            scores[i] = score;
+        }
+    }
+
+    //Moves the best scored move from index on to index and returns it, sorting only as far as the search gets
+    private static int pickMove(MoveList moves, int[] scores, int index) {
+        int best = index;
+        for (int i = index + 1; i < moves.size(); i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        int move = moves.get(best);
+        if (best != index) {
+            moves.set(best, moves.get(index));
+            moves.set(index, move);
+            int score = scores[best];
+            scores[best] = scores[index];
+            scores[index] = score;
+        }
+        return move;
+    }
+
+    //A quiet move that caused a cutoff will likely cause one in sibling positions too
+    private void rememberCutoff(int move, int ply, int depth) {
+        if (this.killers[2 * ply] != move) {
+            this.killers[2 * ply + 1] = this.killers[2 * ply];
+            this.killers[2 * ply] = move;
+        }
+        int index = (this.game.getTeamTurn().ordinal() << 12) | (Move.from(move) << 6) | Move.to(move);
+        this.history[index] += depth * depth;
+        if (this.history[index] > HISTORY_LIMIT) {
+            for (int i = 0; i < this.history.length; i++) {
+                this.history[i] >>= 1;
+            }
+        }
+    }
+
+    //Mate scores count plies from the root, the table keeps them counted from the position so they can be used at any ply
+    private static int toTable(int score, int ply) {
+        return score > MATE - MAX_PLY ? score + ply : score < -MATE + MAX_PLY ? score - ply : score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        return score > MATE - MAX_PLY ? score - ply : score < -MATE + MAX_PLY ? score + ply : score;
+    }
+
+    private void checkLimits() {
+        if ((this.limits.maxNodes() > 0 && this.nodes >= this.limits.maxNodes())
+                || System.nanoTime() >= this.deadline
+                || Thread.currentThread().isInterrupted()) {
+            this.stopped = true;
+        }
+    }
+
+    private static void moveToFront(MoveList moves, int move) {
+        int index = moves.indexOf(move);
+        for (int i = index; i > 0; i--) {
+            moves.set(i, moves.get(i - 1));
+        }
+        moves.set(0, move);
+    }
+}
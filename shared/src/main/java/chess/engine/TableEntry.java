@@ -0,0 +1,66 @@
+package chess.engine;
+
+/**
+ * Packs what a search learned about one position into a single long, so a
+ * table entry can be read or written in one step.
+ * <p>
+ * Layout: bits 0-18 the best move as packed by {@link chess.Move}, bits
+ * 19-20 the bound, bits 21-27 the depth searched and bits 28-43 the score
+ * as a signed 16-bit number. A stored entry always has a bound, so no
+ * entry is 0, which tables use to mean "nothing stored". Perft counts
+ * use the bits from 28 up for the count instead of a score, see {@link #packCount}.
+ */
+public final class TableEntry {
+
+    /**
+     * The score is exact
+     */
+    static final int EXACT = 1;
+    /**
+     * The search failed high, the real score is at least this score
+     */
+    static final int LOWER = 2;
+    /**
+     * The search failed low, the real score is at most this score
+     */
+    static final int UPPER = 3;
+
+    private static final int MOVE_MASK = (1 << 19) - 1;
+
+    private TableEntry() {
+    }
+
+    static long pack(int move, int bound, int depth, int score) {
+        return (move & MOVE_MASK) | ((long) bound << 19) | ((long) Math.min(depth, 127) << 21) | ((long) (score & 0xFFFF) << 28);
+    }
+
+    static int move(long entry) {
+        return (int) entry & MOVE_MASK;
+    }
+
+    static int bound(long entry) {
+        return (int) (entry >>> 19) & 3;
+    }
+
+    static int depth(long entry) {
+        return (int) (entry >>> 21) & 127;
+    }
+
+    static int score(long entry) {
+        return (short) (entry >>> 28);
+    }
+
+    /**
+     * Packs a leaf node count for caching perft results, with the depth
+     * where a search entry has it so tables can weigh both kinds alike
+     *
+     * @param count node count, below 2^36
+     */
+    public static long packCount(int depth, long count) {
+        return (count << 28) | ((long) Math.min(depth, 127) << 21) | ((long) EXACT << 19);
+    }
+
+    public static long count(long entry) {
+        return entry >>> 28;
+    }
+}
@@ -0,0 +1,36 @@
+package chess.engine;
+
+/**
+ * Remembers what a search found out about positions, keyed by the
+ * position's Zobrist key (see {@link chess.ChessGame#positionKey()}), so a
+ * position reached again by another move order, a later depth or another
+ * search thread does not have to be searched again. Entries are longs packed
+ * by {@link TableEntry}.
+ * <p>
+ * Tables may drop or replace any entry at any time, so a search treats a
+ * probe as a hint and must work without one.
+ */
+public interface TranspositionTable {
+
+    /**
+     * @return the entry stored for the key, or 0 if there is none
+     */
+    long probe(long key);
+
+    /**
+     * Stores an entry for the key, possibly replacing the entry of another position
+     */
+    void store(long key, long entry);
+
+    /**
+     * Drops every entry, for starting a new game
+     */
+    void clear();
+
+    /**
+     * Called when a search starts, so tables that age their entries can
+     * tell results of earlier searches from the current one
+     */
+    default void newSearch() {
+    }
+}
@@ -0,0 +1,259 @@
+package chess.perft;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.Move;
+import chess.MoveList;
+import chess.SlidingAttacks;
+import chess.engine.OffHeapTable;
+import chess.engine.TableEntry;
+import chess.engine.TranspositionTable;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Counts the leaf nodes of the legal move tree to a fixed depth (perft).
+ * The counts for well known positions are published, so any change to move
+ * generation can be checked against them, and nodes per second makes a
+ * simple throughput benchmark.
+ * <p>
+ * Usage: {@code java chess.perft.Perft <depth> [--fen "<position>"] [--parallel [threads]] [--hash <MB>]},
+ * the starting position is used when no FEN is given. With {@code --hash}
+ * the counts below each position are cached in an off-heap table.
+ */
+public final class Perft {
+
+    /**
+     * Node counts for one perft run
+     *
+     * @param divide node count below each root move, in generation order
+     * @param nodes  total leaf nodes
+     * @param nanos  time taken
+     */
+    public record Result(Map<ChessMove, Long> divide, long nodes, long nanos) {
+        public long nodesPerSecond() {
+            return this.nanos == 0 ? 0 : this.nodes * 1_000_000_000L / this.nanos;
+        }
+    }
+
+    private Perft() {
+    }
+
+    /**
+     * Counts the leaf nodes below the game's current position. The game is
+     * played on and then restored, so it must not be used by anything else
+     * until this returns.
+     */
+    public static long perft(ChessGame game, int depth) {
+        return count(game, depth, newMoveLists(depth));
+    }
+
+    /**
+     * Counts the leaf nodes below the game's current position, keeping the
+     * count below every position in the table so a position reached again by
+     * another move order is only counted once
+     */
+    public static long perft(ChessGame game, int depth, TranspositionTable table) {
+        return count(game, depth, newMoveLists(depth), table);
+    }
+
+    /**
+     * Counts the leaf nodes below each root move, one after another
+     */
+    public static Result divide(ChessGame game, int depth) {
+        checkDepth(depth);
+        long start = System.nanoTime();
+        MoveList[] moveLists = newMoveLists(depth);
+        MoveList rootMoves = new MoveList();
+        game.legalMoves(rootMoves);
+        Map<ChessMove, Long> divide = new LinkedHashMap<>();
+        long nodes = 0;
+        for (int i = 0; i < rootMoves.size(); i++) {
+            int move = rootMoves.get(i);
+            game.doMove(move);
+            long count = count(game, depth - 1, moveLists);
+            game.undoMove();
+            divide.put(Move.toChessMove(move), count);
+            nodes += count;
+        }
+        return new Result(divide, nodes, System.nanoTime() - start);
+    }
+
+    /**
+     * Counts the leaf nodes below each root move, splitting the root moves
+     * across the pool. Every task plays on its own copy of the game, so the
+     * given game is never changed.
+     */
+    public static Result divide(ChessGame game, int depth, ForkJoinPool pool) {
+        checkDepth(depth);
+        long start = System.nanoTime();
+        MoveList rootMoves = new MoveList();
+        new ChessGame(game).legalMoves(rootMoves);
+        List<RootMoveTask> tasks = new ArrayList<>(rootMoves.size());
+        for (int i = 0; i < rootMoves.size(); i++) {
+            tasks.add(new RootMoveTask(new ChessGame(game), rootMoves.get(i), depth - 1));
+        }
+        pool.invoke(new RecursiveTask<Void>() {
+            @Override
+            protected Void compute() {
+                invokeAll(tasks);
+                return null;
+            }
+        });
+        Map<ChessMove, Long> divide = new LinkedHashMap<>();
+        long nodes = 0;
+        for (RootMoveTask task : tasks) {
+            long count = task.join();
+            divide.put(Move.toChessMove(task.move), count);
+            nodes += count;
+        }
+        return new Result(divide, nodes, System.nanoTime() - start);
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: Perft <depth> [--fen \"<position>\"] [--parallel [threads]] [--hash <MB>]");
+            return;
+        }
+        int depth = Integer.parseInt(args[0]);
+        ChessGame game = new ChessGame();
+        int threads = 0;
+        long hashBytes = 0;
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--fen") && i + 1 < args.length) {
+                game = ChessGame.fromFen(args[++i]);
+            }
+            else if (args[i].equals("--parallel")) {
+                threads = i + 1 < args.length && !args[i + 1].startsWith("--") ? Integer.parseInt(args[++i]) : Runtime.getRuntime().availableProcessors();
+            }
+            else if (args[i].equals("--hash") && i + 1 < args.length) {
+                hashBytes = Long.parseLong(args[++i]) << 20;
+            }
+            else {
+                System.out.println("Unknown argument: " + args[i]);
+                return;
+            }
+        }
+        if (hashBytes > 0) {
+            OffHeapTable table = new OffHeapTable(hashBytes);
+            long start = System.nanoTime();
+            long nodes = perft(game, depth, table);
+            long nanos = System.nanoTime() - start;
+            OffHeapTable.Stats stats = table.stats();
+            System.out.println("Nodes: " + nodes);
+            System.out.println("Time: " + nanos / 1_000_000 + " ms");
+            System.out.println("Table: " + (table.sizeBytes() >> 20) + " MB, hit rate " + Math.round(stats.hitRate() * 100)
+                    + "%, " + stats.collisions() + " collisions, " + stats.overwrites() + " overwrites");
+            return;
+        }
+        Result result;
+        if (threads > 0) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                result = divide(game, depth, pool);
+            } finally {
+                pool.shutdown();
+            }
+        }
+        else {
+            result = divide(game, depth);
+        }
+        for (Map.Entry<ChessMove, Long> entry : result.divide().entrySet()) {
+            System.out.println(moveText(entry.getKey()) + ": " + entry.getValue());
+        }
+        System.out.println();
+        System.out.println("Nodes: " + result.nodes());
+        System.out.println("Time: " + result.nanos() / 1_000_000 + " ms");
+        System.out.println("Nodes per second: " + result.nodesPerSecond());
+        System.out.println("Attack tables built in: " + SlidingAttacks.buildNanos() / 1_000 + " us");
+    }
+
+    //Writes a move the way other perft tools do, for example e2e4 or e7e8q
+    private static String moveText(ChessMove move) {
+        String text = move.getStartPosition().toString() + move.getEndPosition().toString();
+        if (move.getPromotionPiece() != null) {
+            text += move.getPromotionPiece() == ChessPiece.PieceType.KNIGHT ? "n" : move.getPromotionPiece().toString().substring(0, 1).toLowerCase();
+        }
+        return text;
+    }
+
+    private static long count(ChessGame game, int depth, MoveList[] moveLists) {
+        if (depth == 0) {
+            return 1;
+        }
+        MoveList moves = moveLists[depth];
+        game.legalMoves(moves);
+        //Every legal move at the last ply is a leaf, so there is no need to play them
+        if (depth == 1) {
+            return moves.size();
+        }
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            game.doMove(moves.get(i));
+            nodes += count(game, depth - 1, moveLists);
+            game.undoMove();
+        }
+        return nodes;
+    }
+
+    private static long count(ChessGame game, int depth, MoveList[] moveLists, TranspositionTable table) {
+        if (depth <= 1) {
+            return count(game, depth, moveLists);
+        }
+        //Counts depend on the depth left, so it is mixed into the key
+        long key = game.positionKey() ^ (depth * 0x9E3779B97F4A7C15L);
+        long entry = table.probe(key);
+        if (entry != 0) {
+            return TableEntry.count(entry);
+        }
+        MoveList moves = moveLists[depth];
+        game.legalMoves(moves);
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            game.doMove(moves.get(i));
+            nodes += count(game, depth - 1, moveLists, table);
+            game.undoMove();
+        }
+        table.store(key, TableEntry.packCount(depth, nodes));
+        return nodes;
+    }
+
+    //One list per remaining depth so a list is never reused while it is being walked
+    private static MoveList[] newMoveLists(int depth) {
+        MoveList[] moveLists = new MoveList[Math.max(depth, 0) + 1];
+        for (int i = 0; i < moveLists.length; i++) {
+            moveLists[i] = new MoveList();
+        }
+        return moveLists;
+    }
+
+    private static void checkDepth(int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("Perft depth must be at least 1");
+        }
+    }
+
+    private static final class RootMoveTask extends RecursiveTask<Long> {
+        private final ChessGame game;
+        private final int move;
+        private final int depth;
+
+        RootMoveTask(ChessGame game, int move, int depth) {
+            this.game = game;
+            this.move = move;
+            this.depth = depth;
+        }
+
+        @Override
+        protected Long compute() {
+            this.game.doMove(this.move);
+            return count(this.game, this.depth, newMoveLists(this.depth));
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package chess.pgn;
+
+/**
+ * Indicates a game in a PGN file could not be read, for example because a
+ * move is not legal in the position it was played in
+ */
+public class PgnException extends Exception {
+
+    private final int line;
+
+    public PgnException(String message, int line) {
+        super(message + " (line " + line + ")");
+        this.line = line;
+    }
+
+    public PgnException(String message, int line, Throwable cause) {
+        super(message + " (line " + line + ")", cause);
+        this.line = line;
+    }
+
+    /**
+     * @return the line of the file the problem was found on, starting at 1
+     */
+    public int getLine() {
+        return this.line;
+    }
+}
@@ -0,0 +1,76 @@
+package chess.pgn;
+
+import chess.ChessGame;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * One game read from or to be written to a PGN file: its tag pairs, the
+ * moves of the main line packed as described in {@link chess.Move}, and the
+ * result. Comments and variations are not kept.
+ */
+public final class PgnGame {
+
+    private final Map<String, String> tags;
+    private final int[] moves;
+    private final String result;
+
+    /**
+     * @param tags   tag pairs in the order they are written, such as Event, White and Black
+     * @param moves  the moves played from the starting position, or from the position in the FEN tag
+     * @param result 1-0, 0-1, 1/2-1/2 or * for a game that has not finished
+     */
+    public PgnGame(Map<String, String> tags, int[] moves, String result) {
+        this.tags = Collections.unmodifiableMap(tags);
+        this.moves = moves;
+        this.result = result;
+    }
+
+    public Map<String, String> getTags() {
+        return this.tags;
+    }
+
+    /**
+     * @return the value of a tag, or null if the game does not have it
+     */
+    public String getTag(String name) {
+        return this.tags.get(name);
+    }
+
+    public int[] getMoves() {
+        return Arrays.copyOf(this.moves, this.moves.length);
+    }
+
+    public int getMoveCount() {
+        return this.moves.length;
+    }
+
+    public int getMove(int ply) {
+        return this.moves[ply];
+    }
+
+    public String getResult() {
+        return this.result;
+    }
+
+    /**
+     * @return a new game at the position the game started from
+     */
+    public ChessGame startingPosition() {
+        String fen = this.tags.get("FEN");
+        return fen == null ? new ChessGame() : ChessGame.fromFen(fen);
+    }
+
+    /**
+     * @return a new game with every move played, the moves can still be undone
+     */
+    public ChessGame replay() {
+        ChessGame game = startingPosition();
+        for (int move : this.moves) {
+            game.doMove(move);
+        }
+        return game;
+    }
+}
@@ -0,0 +1,492 @@
+package chess.pgn;
+
+import chess.ChessGame;
+import chess.InvalidMoveException;
+import chess.MoveList;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+
+/**
+ * Reads games from a PGN file one at a time. Moves are checked and played
+ * as they are read, so only the game being read is held in memory however
+ * large the file is. Comments, variations and numeric annotations are
+ * skipped.
+ * <p>
+ * A game that cannot be read makes {@link #next()} throw a
+ * {@link PgnException}; the rest of that game is skipped first, so the
+ * next call carries on with the game after it.
+ * <p>
+ * {@link #readParallel} splits a large file at game boundaries and reads
+ * the pieces on a pool of threads.
+ */
+public final class PgnReader implements Closeable {
+
+    /**
+     * Totals for one {@link #readParallel} run
+     *
+     * @param games   games read and passed on
+     * @param skipped games that could not be read
+     * @param moves   moves in the games read
+     * @param nanos   time taken
+     */
+    public record Result(long games, long skipped, long moves, long nanos) {
+        public long gamesPerSecond() {
+            return this.nanos == 0 ? 0 : this.games * 1_000_000_000L / this.nanos;
+        }
+    }
+
+    private static final int EOF = -1;
+    //Pieces smaller than this are not worth a thread of their own
+    private static final long MIN_CHUNK = 1 << 20;
+
+    private final Reader in;
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+    private int line = 1;
+    //Whether the next character starts a line, and whether the last one read did, for unread
+    private boolean lineStart = true;
+    private boolean lastLineStart;
+    private final StringBuilder token = new StringBuilder(16);
+    private final MoveList moves = new MoveList();
+    private final MoveList scratch = new MoveList();
+
+    public PgnReader(Reader in) {
+        this.in = in;
+    }
+
+    /**
+     * Reads a UTF-8 stream, which also reads plain ASCII files
+     */
+    public PgnReader(InputStream in) {
+        this(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads the next game
+     *
+     * @return the game, or null at the end of the file
+     * @throws PgnException if the game has a move that is not legal or cannot be understood
+     */
+    public PgnGame next() throws IOException, PgnException {
+        Map<String, String> tags = new LinkedHashMap<>();
+        this.moves.clear();
+        ChessGame game = null;
+        while (true) {
+            int c = read();
+            switch (c) {
+                case EOF:
+                    return tags.isEmpty() && game == null ? null : finish(tags, "*");
+                case ' ', '\t', '\r', '\n', ')':
+                    break;
+                case '[':
+                    //A tag after the moves starts the next game, this one ended without a result
+                    if (game != null) {
+                        unread();
+                        return finish(tags, "*");
+                    }
+                    readTag(tags);
+                    break;
+                case '{':
+                    skipComment();
+                    break;
+                case ';':
+                    skipLine();
+                    break;
+                case '(':
+                    skipVariation();
+                    break;
+                case '$':
+                    readToken(c);
+                    break;
+                case '%':
+                    if (this.lastLineStart) {
+                        skipLine();
+                        break;
+                    }
+                    //Not an escape, so fall through and read it as move text
+                default:
+                    String text = readToken(c);
+                    if (isResult(text)) {
+                        return finish(tags, text);
+                    }
+                    String san = stripMoveNumber(text);
+                    if (san.isEmpty()) {
+                        break;
+                    }
+                    if (game == null) {
+                        game = startingPosition(tags);
+                    }
+                    try {
+                        int move = San.parse(game, san, this.scratch);
+                        game.doMove(move);
+                        this.moves.add(move);
+                    } catch (InvalidMoveException e) {
+                        int errorLine = this.line;
+                        skipGame(true);
+                        throw new PgnException(e.getMessage(), errorLine, e);
+                    }
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.in.close();
+    }
+
+    /**
+     * Reads every game in a file, splitting it into pieces that start at a
+     * game boundary (a tag line after a blank line) and reading the pieces
+     * on the pool. Games are passed to the consumer from the pool's threads
+     * as they are read, so the consumer must be thread safe and games do not
+     * arrive in file order. Games that cannot be read are counted and skipped.
+     */
+    public static Result readParallel(Path file, ForkJoinPool pool, Consumer<PgnGame> consumer) throws IOException {
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long pieces = Math.max(1, Math.min(pool.getParallelism() * 4L, size / MIN_CHUNK));
+            List<ChunkTask> tasks = new ArrayList<>();
+            long chunkStart = 0;
+            for (long i = 1; i <= pieces && chunkStart < size; i++) {
+                long chunkEnd = i == pieces ? size : Math.max(chunkStart, findGameStart(channel, size * i / pieces, size));
+                if (chunkEnd > chunkStart) {
+                    tasks.add(new ChunkTask(channel, chunkStart, chunkEnd, consumer));
+                }
+                chunkStart = chunkEnd;
+            }
+            try {
+                pool.invoke(new RecursiveTask<Void>() {
+                    @Override
+                    protected Void compute() {
+                        invokeAll(tasks);
+                        return null;
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            long games = 0;
+            long skipped = 0;
+            long moves = 0;
+            for (ChunkTask task : tasks) {
+                long[] counts = task.join();
+                games += counts[0];
+                skipped += counts[1];
+                moves += counts[2];
+            }
+            return new Result(games, skipped, moves, System.nanoTime() - start);
+        }
+    }
+
+    //Finds the first '[' at or after offset that starts a line following a blank line, or size if there is none
+    private static long findGameStart(FileChannel channel, long offset, long size) throws IOException {
+        ByteBuffer block = ByteBuffer.allocate(1 << 16);
+        //Newlines seen in a row, ignoring carriage returns, so the window can run across blocks
+        int newlines = 0;
+        for (long at = offset; at < size; ) {
+            block.clear();
+            int read = channel.read(block, at);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                byte b = block.get(i);
+                if (b == '[' && newlines >= 2) {
+                    return at + i;
+                }
+                if (b == '\n') {
+                    newlines++;
+                }
+                else if (b != '\r') {
+                    newlines = 0;
+                }
+            }
+            at += read;
+        }
+        return size;
+    }
+
+    private PgnGame finish(Map<String, String> tags, String result) {
+        int[] played = new int[this.moves.size()];
+        for (int i = 0; i < played.length; i++) {
+            played[i] = this.moves.get(i);
+        }
+        return new PgnGame(tags, played, result);
+    }
+
+    private ChessGame startingPosition(Map<String, String> tags) throws IOException, PgnException {
+        String fen = tags.get("FEN");
+        if (fen == null) {
+            return new ChessGame();
+        }
+        try {
+            return ChessGame.fromFen(fen);
+        } catch (IllegalArgumentException e) {
+            int errorLine = this.line;
+            skipGame(true);
+            throw new PgnException(e.getMessage(), errorLine, e);
+        }
+    }
+
+    //Reads [Name "value"], the opening bracket has been read
+    private void readTag(Map<String, String> tags) throws IOException, PgnException {
+        int c = skipSpaces(read());
+        this.token.setLength(0);
+        while (c != EOF && c != ' ' && c != '"' && c != ']' && c != '\n') {
+            this.token.append((char) c);
+            c = read();
+        }
+        String name = this.token.toString();
+        c = skipSpaces(c);
+        if (name.isEmpty() || c != '"') {
+            int errorLine = this.line;
+            skipGame(false);
+            throw new PgnException("Malformed tag", errorLine);
+        }
+        this.token.setLength(0);
+        for (c = read(); c != EOF && c != '"' && c != '\n'; c = read()) {
+            if (c == '\\') {
+                c = read();
+            }
+            this.token.append((char) c);
+        }
+        tags.put(name, this.token.toString());
+        while (c != EOF && c != ']' && c != '\n') {
+            c = read();
+        }
+    }
+
+    private int skipSpaces(int c) throws IOException {
+        while (c == ' ' || c == '\t') {
+            c = read();
+        }
+        return c;
+    }
+
+    //Reads move text up to the next space or character that starts something else
+    private String readToken(int first) throws IOException {
+        this.token.setLength(0);
+        this.token.append((char) first);
+        while (true) {
+            int c = read();
+            if (c == EOF) {
+                break;
+            }
+            if (c <= ' ' || "[]{}();$".indexOf(c) >= 0) {
+                unread();
+                break;
+            }
+            this.token.append((char) c);
+        }
+        return this.token.toString();
+    }
+
+    private static boolean isResult(String text) {
+        return text.equals("1-0") || text.equals("0-1") || text.equals("1/2-1/2") || text.equals("*");
+    }
+
+    //Move numbers may be their own token ("12." or "12...") or joined to the move ("12.e4")
+    private static String stripMoveNumber(String text) {
+        int i = 0;
+        while (i < text.length() && Character.isDigit(text.charAt(i))) {
+            i++;
+        }
+        if (i == text.length()) {
+            return "";
+        }
+        if (i > 0 && text.charAt(i) != '.') {
+            return text;
+        }
+        while (i < text.length() && text.charAt(i) == '.') {
+            i++;
+        }
+        return text.substring(i);
+    }
+
+    private void skipComment() throws IOException {
+        int c;
+        do {
+            c = read();
+        } while (c != EOF && c != '}');
+    }
+
+    private void skipLine() throws IOException {
+        int c;
+        do {
+            c = read();
+        } while (c != EOF && c != '\n');
+    }
+
+    //Skips a variation, which can hold comments and other variations, the opening bracket has been read
+    private void skipVariation() throws IOException {
+        int depth = 1;
+        while (depth > 0) {
+            int c = read();
+            switch (c) {
+                case EOF -> depth = 0;
+                case '(' -> depth++;
+                case ')' -> depth--;
+                case '{' -> skipComment();
+                case ';' -> skipLine();
+                default -> {
+                }
+            }
+        }
+    }
+
+    //Skips to the end of the current game: its result, or the first tag line after its moves
+    private void skipGame(boolean inMoves) throws IOException {
+        while (true) {
+            int c = read();
+            switch (c) {
+                case EOF:
+                    return;
+                case ' ', '\t', '\r', '\n', ')', '$':
+                    break;
+                case '[':
+                    if (inMoves && this.lastLineStart) {
+                        unread();
+                        return;
+                    }
+                    skipLine();
+                    break;
+                case '{':
+                    skipComment();
+                    break;
+                case ';':
+                    skipLine();
+                    break;
+                case '(':
+                    skipVariation();
+                    break;
+                default:
+                    inMoves = true;
+                    if (isResult(readToken(c))) {
+                        return;
+                    }
+            }
+        }
+    }
+
+    private int read() throws IOException {
+        if (this.position == this.limit) {
+            int read = this.in.read(this.buffer, 0, this.buffer.length);
+            if (read <= 0) {
+                return EOF;
+            }
+            this.position = 0;
+            this.limit = read;
+        }
+        char c = this.buffer[this.position++];
+        this.lastLineStart = this.lineStart;
+        if (c == '\n') {
+            this.line++;
+            this.lineStart = true;
+        }
+        else if (c != '\r') {
+            this.lineStart = false;
+        }
+        return c;
+    }
+
+    //Puts back the character just read, which is never a newline
+    private void unread() {
+        this.position--;
+        this.lineStart = this.lastLineStart;
+    }
+
+    private static final class ChunkTask extends RecursiveTask<long[]> {
+        private final FileChannel channel;
+        private final long start;
+        private final long end;
+        private final Consumer<PgnGame> consumer;
+
+        ChunkTask(FileChannel channel, long start, long end, Consumer<PgnGame> consumer) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+            this.consumer = consumer;
+        }
+
+        @Override
+        protected long[] compute() {
+            long[] counts = new long[3];
+            try (PgnReader reader = new PgnReader(new RangeInputStream(this.channel, this.start, this.end))) {
+                while (true) {
+                    PgnGame game;
+                    try {
+                        game = reader.next();
+                    } catch (PgnException e) {
+                        counts[1]++;
+                        continue;
+                    }
+                    if (game == null) {
+                        return counts;
+                    }
+                    this.consumer.accept(game);
+                    counts[0]++;
+                    counts[2] += game.getMoveCount();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    //Reads one range of a file with positional reads, so every task can share the channel
+    private static final class RangeInputStream extends InputStream {
+        private final FileChannel channel;
+        private long position;
+        private final long end;
+
+        RangeInputStream(FileChannel channel, long start, long end) {
+            this.channel = channel;
+            this.position = start;
+            this.end = end;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (this.position >= this.end) {
+                return -1;
+            }
+            int wanted = (int) Math.min(length, this.end - this.position);
+            int read = this.channel.read(ByteBuffer.wrap(bytes, offset, wanted), this.position);
+            if (read < 0) {
+                return -1;
+            }
+            this.position += read;
+            return read;
+        }
+
+        @Override
+        public void close() {
+            //The channel is shared and closed by readParallel
+        }
+    }
+}
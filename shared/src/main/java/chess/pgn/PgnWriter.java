@@ -0,0 +1,84 @@
+package chess.pgn;
+
+import chess.ChessGame;
+import chess.MoveList;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+
+/**
+ * Writes games as PGN: the tag pairs, a blank line, then the moves in SAN
+ * with move numbers and the result, wrapped to lines of at most 79
+ * characters as the PGN standard asks. Games are written one at a time as
+ * they are given, so any number of games can be written to one file.
+ */
+public final class PgnWriter implements Closeable, Flushable {
+
+    private static final int LINE_WIDTH = 79;
+
+    private final Writer out;
+    private final StringBuilder line = new StringBuilder(LINE_WIDTH + 16);
+    private final MoveList scratch = new MoveList();
+
+    public PgnWriter(Writer out) {
+        this.out = out;
+    }
+
+    public void write(PgnGame game) throws IOException {
+        for (Map.Entry<String, String> tag : game.getTags().entrySet()) {
+            this.out.write('[');
+            this.out.write(tag.getKey());
+            this.out.write(" \"");
+            this.out.write(tag.getValue().replace("\\", "\\\\").replace("\"", "\\\""));
+            this.out.write("\"]\n");
+        }
+        this.out.write('\n');
+
+        ChessGame position = game.startingPosition();
+        this.line.setLength(0);
+        for (int ply = 0; ply < game.getMoveCount(); ply++) {
+            int move = game.getMove(ply);
+            String san = San.format(position, move, this.scratch);
+            //Black's moves only get a number when they start the game, a number stays on the same line as its move
+            if (position.getTeamTurn() == ChessGame.TeamColor.WHITE) {
+                append(position.getFullmoveNumber() + ". " + san);
+            }
+            else if (ply == 0) {
+                append(position.getFullmoveNumber() + "... " + san);
+            }
+            else {
+                append(san);
+            }
+            position.doMove(move);
+        }
+        append(game.getResult());
+        this.out.write(this.line.toString());
+        this.out.write("\n\n");
+    }
+
+    //Adds a token to the current line, starting a new line first if it would not fit
+    private void append(String token) throws IOException {
+        if (!this.line.isEmpty() && this.line.length() + 1 + token.length() > LINE_WIDTH) {
+            this.out.write(this.line.toString());
+            this.out.write('\n');
+            this.line.setLength(0);
+        }
+        if (!this.line.isEmpty()) {
+            this.line.append(' ');
+        }
+        this.line.append(token);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        this.out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.out.close();
+    }
+}
@@ -0,0 +1,221 @@
+package chess.pgn;
+
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.ChessPiece.PieceType;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import chess.Move;
+import chess.MoveList;
+
+/**
+ * Standard Algebraic Notation (SAN), the move text used in PGN, for example
+ * {@code e4}, {@code Nbd7}, {@code exd5}, {@code O-O} or {@code e8=Q+}.
+ * <p>
+ * Moves are matched against the game's legal moves rather than parsed into
+ * a position first, so every move read is known to be legal and the packed
+ * move returned can be played with {@link ChessGame#doMove(int)}. Both
+ * methods take a scratch {@link MoveList} so reading or writing a game does
+ * not allocate a new list for every move.
+ */
+public final class San {
+
+    private San() {
+    }
+
+    /**
+     * Finds the legal move a SAN string stands for in the game's current position
+     *
+     * @param scratch list the legal moves are generated into
+     * @return the move, packed as described in {@link Move}
+     * @throws InvalidMoveException if the text is not a move, or is not exactly one legal move
+     */
+    public static int parse(ChessGame game, String san, MoveList scratch) throws InvalidMoveException {
+        int end = san.length();
+        //Check marks and annotations like !? do not change which move it is
+        while (end > 0 && "+#!?".indexOf(san.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        game.legalMoves(scratch);
+        if (san.startsWith("O-O", 0) || san.startsWith("0-0", 0)) {
+            boolean queenside = end == 5;
+            if (end != 3 && !queenside) {
+                throw new InvalidMoveException("Not a move: " + san);
+            }
+            for (int i = 0; i < scratch.size(); i++) {
+                int move = scratch.get(i);
+                int from = Move.from(move);
+                if (pieceType(game, from) == PieceType.KING && Move.to(move) == from + (queenside ? -2 : 2)) {
+                    return move;
+                }
+            }
+            throw new InvalidMoveException("Castling is not legal here: " + san);
+        }
+
+        int start = 0;
+        PieceType type = PieceType.PAWN;
+        if (end > 0 && "KQRBN".indexOf(san.charAt(0)) >= 0) {
+            type = pieceType(san.charAt(0));
+            start = 1;
+        }
+        PieceType promotion = null;
+        if (type == PieceType.PAWN && end > 0 && "QRBN".indexOf(san.charAt(end - 1)) >= 0) {
+            promotion = pieceType(san.charAt(end - 1));
+            end--;
+            if (end > 0 && san.charAt(end - 1) == '=') {
+                end--;
+            }
+        }
+        if (end - start < 2) {
+            throw new InvalidMoveException("Not a move: " + san);
+        }
+        int to = square(san.charAt(end - 2), san.charAt(end - 1));
+        if (to < 0) {
+            throw new InvalidMoveException("Not a move: " + san);
+        }
+        //Whatever is left between the piece and the target is a start file and/or row, and maybe an x
+        int fromFile = -1;
+        int fromRow = -1;
+        for (int i = start; i < end - 2; i++) {
+            char c = san.charAt(i);
+            if (c >= 'a' && c <= 'h') {
+                fromFile = c - 'a';
+            }
+            else if (c >= '1' && c <= '8') {
+                fromRow = c - '1';
+            }
+            else if (c != 'x' && c != ':' && c != '-') {
+                throw new InvalidMoveException("Not a move: " + san);
+            }
+        }
+
+        int found = Move.NONE;
+        for (int i = 0; i < scratch.size(); i++) {
+            int move = scratch.get(i);
+            int from = Move.from(move);
+            if (Move.to(move) != to || Move.promotion(move) != promotion || pieceType(game, from) != type
+                    || (fromFile >= 0 && (from & 7) != fromFile) || (fromRow >= 0 && (from >>> 3) != fromRow)) {
+                continue;
+            }
+            if (found != Move.NONE) {
+                throw new InvalidMoveException("Ambiguous move: " + san);
+            }
+            found = move;
+        }
+        if (found == Move.NONE) {
+            throw new InvalidMoveException("Illegal move: " + san);
+        }
+        return found;
+    }
+
+    /**
+     * Writes a legal move in SAN, with the fewest start square characters
+     * that tell it apart and a + or # if it gives check or checkmate. The
+     * move is played and taken back to find out, so the game ends up where
+     * it started.
+     *
+     * @param scratch list the legal moves are generated into
+     */
+    public static String format(ChessGame game, int move, MoveList scratch) {
+        StringBuilder san = new StringBuilder(8);
+        int from = Move.from(move);
+        int to = Move.to(move);
+        PieceType type = pieceType(game, from);
+        if (type == PieceType.KING && Math.abs(to - from) == 2) {
+            san.append(to > from ? "O-O" : "O-O-O");
+        }
+        else {
+            boolean capture = Move.isCapture(move) || game.getBoard().getPiece(ChessPosition.fromSquare(to)) != null
+                    || (type == PieceType.PAWN && (from & 7) != (to & 7));
+            if (type == PieceType.PAWN) {
+                if (capture) {
+                    san.append((char) ('a' + (from & 7)));
+                }
+            }
+            else {
+                san.append(letter(type));
+                appendDisambiguation(game, move, type, scratch, san);
+            }
+            if (capture) {
+                san.append('x');
+            }
+            san.append((char) ('a' + (to & 7))).append((char) ('1' + (to >>> 3)));
+            PieceType promotion = Move.promotion(move);
+            if (promotion != null) {
+                san.append('=').append(letter(promotion));
+            }
+        }
+        game.doMove(move);
+        if (game.isInCheck(game.getTeamTurn())) {
+            game.legalMoves(scratch);
+            san.append(scratch.isEmpty() ? '#' : '+');
+        }
+        game.undoMove();
+        return san.toString();
+    }
+
+    //Adds the start file, row or both when another piece of the same type could move to the same square
+    private static void appendDisambiguation(ChessGame game, int move, PieceType type, MoveList scratch, StringBuilder san) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        boolean other = false;
+        boolean sameFile = false;
+        boolean sameRow = false;
+        game.legalMoves(scratch);
+        for (int i = 0; i < scratch.size(); i++) {
+            int candidate = Move.from(scratch.get(i));
+            if (candidate == from || Move.to(scratch.get(i)) != to || pieceType(game, candidate) != type) {
+                continue;
+            }
+            other = true;
+            sameFile |= (candidate & 7) == (from & 7);
+            sameRow |= (candidate >>> 3) == (from >>> 3);
+        }
+        if (!other) {
+            return;
+        }
+        if (!sameFile) {
+            san.append((char) ('a' + (from & 7)));
+        }
+        else if (!sameRow) {
+            san.append((char) ('1' + (from >>> 3)));
+        }
+        else {
+            san.append((char) ('a' + (from & 7))).append((char) ('1' + (from >>> 3)));
+        }
+    }
+
+    private static PieceType pieceType(ChessGame game, int square) {
+        ChessPiece piece = game.getBoard().getPiece(ChessPosition.fromSquare(square));
+        return piece == null ? null : piece.getPieceType();
+    }
+
+    private static int square(char file, char row) {
+        if (file < 'a' || file > 'h' || row < '1' || row > '8') {
+            return -1;
+        }
+        return (row - '1') * 8 + (file - 'a');
+    }
+
+    private static PieceType pieceType(char letter) {
+        return switch (letter) {
+            case 'K' -> PieceType.KING;
+            case 'Q' -> PieceType.QUEEN;
+            case 'R' -> PieceType.ROOK;
+            case 'B' -> PieceType.BISHOP;
+            case 'N' -> PieceType.KNIGHT;
+            default -> PieceType.PAWN;
+        };
+    }
+
+    private static char letter(PieceType type) {
+        return switch (type) {
+            case KING -> 'K';
+            case QUEEN -> 'Q';
+            case ROOK -> 'R';
+            case BISHOP -> 'B';
+            case KNIGHT -> 'N';
+            default -> 'P';
+        };
+    }
+}
@@ -1,10 +1,12 @@
 package webSocketMessages.serverMessages;
 
 import chess.ChessGame;
+import chess.GameSnapshot;
 
 public class LoadGameMessage extends ServerMessage{
 
-    private ChessGame game;
+    //Sent as a snapshot so one message can go to every session while the game keeps changing
+    private GameSnapshot game;
     private String whiteUsername;
     private String blackUsername;
 
@@ -14,10 +16,14 @@ public class LoadGameMessage extends ServerMessage{
     }
 
     public ChessGame getGame() {
-        return game;
+        return game == null ? null : game.toGame();
     }
 
     public void setGame(ChessGame game) {
+        this.game = game == null ? null : game.snapshot();
+    }
+
+    public void setGame(GameSnapshot game) {
         this.game = game;
     }
 
@@ -0,0 +1,93 @@
+package chessTests;
+
+import chess.*;
+import chess.pgn.PgnReader;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.concurrent.ForkJoinPool;
+
+public class BatchValidatorTests {
+
+    private static final String OPERA_GAME = """
+            1. e4 e5 2. Nf3 d6 3. d4 Bg4 4. dxe5 Bxf3 5. Qxf3 dxe5 6. Bc4 Nf6 7. Qb3 Qe7
+            8. Nc3 c6 9. Bg5 b5 10. Nxb5 cxb5 11. Bxb5+ Nbd7 12. O-O-O Rd8 13. Rxd7 Rxd7
+            14. Rd1 Qe6 15. Bxd7+ Nxd7 16. Qb8+ Nxb8 17. Rd8# 1-0
+            """;
+
+    private static int[] operaGame() throws Exception {
+        try (var reader = new PgnReader(new StringReader(OPERA_GAME))) {
+            return reader.next().getMoves();
+        }
+    }
+
+    @Test
+    @DisplayName("Whole Games Report Their First Illegal Move")
+    public void games() throws Exception {
+        int[] opera = operaGame();
+        int count = 1000;
+        var starts = new ChessGame[count];
+        var games = new int[count][];
+        long expectedMoves = 0;
+        for (int i = 0; i < count; i++) {
+            games[i] = opera.clone();
+            //Every seventh game has a move swapped for one that stays on its own square
+            if (i % 7 == 0) {
+                int ply = i % opera.length;
+                games[i][ply] = Move.encode(Move.from(opera[ply]), Move.from(opera[ply]), null, 0);
+                expectedMoves += ply + 1;
+            }
+            else {
+                expectedMoves += opera.length;
+            }
+        }
+
+        var pool = new ForkJoinPool(4);
+        BatchValidator.Result result;
+        try {
+            result = BatchValidator.validateGames(starts, games, pool);
+        } finally {
+            pool.shutdown();
+        }
+        for (int i = 0; i < count; i++) {
+            boolean corrupted = i % 7 == 0;
+            Assertions.assertEquals(!corrupted, result.isValid(i), "Game " + i);
+            Assertions.assertEquals(corrupted ? i % opera.length : -1, result.firstIllegalPly()[i], "Game " + i);
+        }
+        Assertions.assertEquals(count - (count + 6) / 7, result.validCount());
+        Assertions.assertEquals(expectedMoves, result.moves());
+    }
+
+    @Test
+    @DisplayName("Single Moves Are Checked In Their Own Positions")
+    public void moves() throws Exception {
+        int[] opera = operaGame();
+        var positions = new ChessGame[opera.length * 2];
+        var moves = new int[opera.length * 2];
+        var game = new ChessGame();
+        for (int ply = 0; ply < opera.length; ply++) {
+            var position = new ChessGame(game);
+            positions[2 * ply] = position;
+            moves[2 * ply] = opera[ply];
+            //The same position is used again for a move by the team that is not on turn
+            positions[2 * ply + 1] = position;
+            moves[2 * ply + 1] = ply == 0 ? Move.encode(52, 36, null, 0) : opera[ply - 1];
+            game.doMove(opera[ply]);
+        }
+
+        var pool = new ForkJoinPool(4);
+        BatchValidator.Result result;
+        try {
+            result = BatchValidator.validateMoves(positions, moves, pool);
+        } finally {
+            pool.shutdown();
+        }
+        for (int i = 0; i < moves.length; i++) {
+            Assertions.assertEquals(i % 2 == 0, result.isValid(i), "Entry " + i);
+        }
+        Assertions.assertEquals(opera.length, result.validCount());
+        Assertions.assertEquals(moves.length, result.moves());
+    }
+}
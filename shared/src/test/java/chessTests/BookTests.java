@@ -0,0 +1,113 @@
+package chessTests;
+
+import chess.*;
+import chess.book.BookBuilder;
+import chess.book.OpeningBook;
+import chess.pgn.PgnReader;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+public class BookTests {
+
+    private static final String GAMES = """
+            [Result "1-0"]
+
+            1. e4 e5 2. Nf3 Nc6 3. Bb5 1-0
+
+            [Result "1/2-1/2"]
+
+            1. e4 e5 2. Nf3 Nf6 1/2-1/2
+
+            [Result "0-1"]
+
+            1. e4 c5 2. Nf3 d6 0-1
+
+            [Result "1-0"]
+
+            1. d4 d5 2. c4 1-0
+
+            """;
+
+    @Test
+    @DisplayName("Built Book Finds Moves By Position")
+    public void buildAndProbe(@TempDir Path directory) throws Exception {
+        var builder = new BookBuilder(3, 1);
+        try (var reader = new PgnReader(new StringReader(GAMES))) {
+            for (var game = reader.next(); game != null; game = reader.next()) {
+                builder.add(game);
+            }
+        }
+        Path file = directory.resolve("test.book");
+        //Start: e4 and d4, after e4: e5 and c5, after e4 e5: Nf3, after d4: d5, after e4 c5: Nf3, after d4 d5: c4
+        Assertions.assertEquals(8, builder.write(file));
+
+        var book = OpeningBook.open(file);
+        Assertions.assertEquals(8, book.size());
+        var game = new ChessGame();
+        int start = book.find(game.positionKey());
+        Assertions.assertEquals(3, book.weight(start));
+        Assertions.assertEquals(getMove(game, "e2e4"), book.move(start));
+        Assertions.assertEquals(1, book.weight(start + 1));
+        Assertions.assertEquals(getMove(game, "d2d4"), book.move(start + 1));
+        Assertions.assertEquals(getMove(game, "e2e4"), book.bestMove(game.positionKey()));
+        var picked = new HashSet<Integer>();
+        for (long random = 0; random < 8; random++) {
+            picked.add(book.pickMove(game.positionKey(), random));
+        }
+        Assertions.assertEquals(Set.of(getMove(game, "e2e4"), getMove(game, "d2d4")), picked);
+
+        game.doMove(getMove(game, "e2e4"));
+        game.doMove(getMove(game, "e7e5"));
+        Assertions.assertEquals(getMove(game, "g1f3"), book.bestMove(game.positionKey()));
+        //Past the counted plies
+        game.doMove(getMove(game, "g1f3"));
+        Assertions.assertEquals(-1, book.find(game.positionKey()));
+        Assertions.assertEquals(Move.NONE, book.pickMove(game.positionKey(), 5));
+    }
+
+    @Test
+    @DisplayName("Rare Moves Are Left Out And Bad Files Are Rejected")
+    public void minGamesAndBadFiles(@TempDir Path directory) throws Exception {
+        var builder = new BookBuilder(2, 2);
+        try (var reader = new PgnReader(new StringReader(GAMES))) {
+            for (var game = reader.next(); game != null; game = reader.next()) {
+                builder.add(game);
+            }
+        }
+        Path file = directory.resolve("common.book");
+        //Only e4 (3 games) and e5 after e4 (2 games)
+        Assertions.assertEquals(2, builder.write(file));
+
+        byte[] bytes = Files.readAllBytes(file);
+        Path truncated = directory.resolve("truncated.book");
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 1));
+        Assertions.assertThrows(IOException.class, () -> OpeningBook.open(truncated));
+        Path text = directory.resolve("games.pgn");
+        Files.writeString(text, GAMES);
+        Assertions.assertThrows(IOException.class, () -> OpeningBook.open(text));
+    }
+
+    //The legal move from one square to another, with the flags move generation gives it
+    private static int getMove(ChessGame game, String move) {
+        var moves = new MoveList();
+        game.legalMoves(moves);
+        int from = (move.charAt(0) - 'a') + (move.charAt(1) - '1') * 8;
+        int to = (move.charAt(2) - 'a') + (move.charAt(3) - '1') * 8;
+        for (int i = 0; i < moves.size(); i++) {
+            if (Move.from(moves.get(i)) == from && Move.to(moves.get(i)) == to) {
+                return moves.get(i);
+            }
+        }
+        throw new IllegalArgumentException("Not legal: " + move);
+    }
+}
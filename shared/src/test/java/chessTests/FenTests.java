@@ -0,0 +1,99 @@
+package chessTests;
+
+import chess.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static passoffTests.TestFactory.*;
+
+public class FenTests {
+
+    private static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+    private static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+
+    @Test
+    @DisplayName("Starting Position Reads And Writes As FEN")
+    public void startingPosition() {
+        Assertions.assertEquals(START, getNewGame().toFen());
+
+        var game = ChessGame.fromFen(START);
+        Assertions.assertEquals(getNewGame(), game);
+        Assertions.assertEquals(getNewGame().positionKey(), game.positionKey());
+    }
+
+    @Test
+    @DisplayName("FEN Round Trips Castling, En Passant And Clocks")
+    public void roundTrip() throws InvalidMoveException {
+        var game = getNewGame();
+        game.makeMove(getNewMove(getNewPosition(2, 5), getNewPosition(4, 5), null));
+        game.makeMove(getNewMove(getNewPosition(8, 7), getNewPosition(6, 6), null));
+        game.makeMove(getNewMove(getNewPosition(4, 5), getNewPosition(5, 5), null));
+        game.makeMove(getNewMove(getNewPosition(7, 4), getNewPosition(5, 4), null));
+        game.makeMove(getNewMove(getNewPosition(1, 5), getNewPosition(2, 5), null));
+
+        var fen = "rnbqkb1r/ppp1pppp/5n2/3pP3/8/8/PPPPKPPP/RNBQ1BNR b kq - 1 3";
+        Assertions.assertEquals(fen, game.toFen());
+        Assertions.assertEquals(fen, game.snapshot().toFen());
+
+        var loaded = ChessGame.fromFen(fen);
+        Assertions.assertEquals(game, loaded);
+        Assertions.assertEquals(game.positionKey(), loaded.positionKey());
+        Assertions.assertEquals(1, loaded.getHalfmoveClock());
+        Assertions.assertEquals(3, loaded.getFullmoveNumber());
+        Assertions.assertEquals(fen, loaded.toFen());
+
+        var kiwipete = ChessGame.fromFen(KIWIPETE);
+        Assertions.assertEquals(KIWIPETE, kiwipete.toFen());
+    }
+
+    @Test
+    @DisplayName("En Passant Square Is Kept Only When A Pawn Can Use It")
+    public void enPassant() throws InvalidMoveException {
+        var game = ChessGame.fromFen("rnbqkbnr/ppp1pppp/8/4P3/8/8/PPPP1PPP/RNBQKBNR b KQkq - 0 2");
+        game.makeMove(getNewMove(getNewPosition(7, 6), getNewPosition(5, 6), null));
+        Assertions.assertEquals("rnbqkbnr/ppp1p1pp/8/4Pp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3", game.toFen());
+
+        var loaded = ChessGame.fromFen(game.toFen());
+        Assertions.assertEquals(game.positionKey(), loaded.positionKey());
+        Assertions.assertTrue(loaded.validMoves(getNewPosition(5, 5)).contains(getNewMove(getNewPosition(5, 5), getNewPosition(6, 6), null)),
+                "Loaded game lost the en passant square");
+
+        //Other programs write the square after every double move, with no pawn to take it this is the same position as without it
+        var withSquare = ChessGame.fromFen("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1");
+        var withoutSquare = ChessGame.fromFen("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1");
+        Assertions.assertEquals(withoutSquare.positionKey(), withSquare.positionKey());
+        Assertions.assertEquals(withoutSquare.toFen(), withSquare.toFen());
+    }
+
+    @Test
+    @DisplayName("Finished Games And Missing Clocks")
+    public void finishedAndShortForms() {
+        var game = getNewGame();
+        game.setTeamTurn(ChessGame.TeamColor.FINISHED);
+        var loaded = ChessGame.fromFen(game.toFen());
+        Assertions.assertEquals(ChessGame.TeamColor.FINISHED, loaded.getTeamTurn());
+        Assertions.assertEquals(ChessGame.GameStatus.FINISHED, loaded.getStatus());
+
+        var shortForm = ChessGame.fromFen("4k3/8/8/8/8/8/8/4K2R w K -");
+        Assertions.assertEquals("4k3/8/8/8/8/8/8/4K2R w K - 0 1", shortForm.toFen());
+        //A castling right for a rook that is not there is dropped
+        Assertions.assertEquals("4k3/8/8/8/8/8/8/4K2R w K - 0 1", ChessGame.fromFen("4k3/8/8/8/8/8/8/4K2R w KQkq - 0 1").toFen());
+    }
+
+    @Test
+    @DisplayName("Invalid FEN Is Rejected")
+    public void invalid() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen(null));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen(""));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP w KQkq - 0 1"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("rnbqkbnr/pppppppp/9/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("rnbqkbnr/ppppxppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR x KQkq - 0 1"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq e4 0 1"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - zero 1"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("8/8/8/8/8/8/8/8 w - - 0 1"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("4k3/8/8/8/8/8/8/8 w - - 0 1"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("4k3/8/8/8/8/8/8/3KK3 w - - 0 1"));
+    }
+}
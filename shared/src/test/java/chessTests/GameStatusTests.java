@@ -0,0 +1,130 @@
+package chessTests;
+
+import chess.*;
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static passoffTests.TestFactory.*;
+
+public class GameStatusTests {
+
+    @Test
+    @DisplayName("Status Follows The Moves Played")
+    public void statusAfterMoves() throws InvalidMoveException {
+        var game = getNewGame();
+        Assertions.assertEquals(ChessGame.GameStatus.ONGOING, game.getStatus());
+
+        //Fool's mate
+        game.makeMove(getNewMove(getNewPosition(2, 6), getNewPosition(3, 6), null));
+        game.makeMove(getNewMove(getNewPosition(7, 5), getNewPosition(5, 5), null));
+        game.makeMove(getNewMove(getNewPosition(2, 7), getNewPosition(4, 7), null));
+        Assertions.assertEquals(ChessGame.GameStatus.ONGOING, game.getStatus());
+        game.makeMove(getNewMove(getNewPosition(8, 4), getNewPosition(4, 8), null));
+
+        Assertions.assertEquals(ChessGame.GameStatus.CHECKMATE, game.getStatus());
+        Assertions.assertTrue(game.isInCheckmate(ChessGame.TeamColor.WHITE));
+
+        game.undoMove();
+        Assertions.assertEquals(ChessGame.GameStatus.ONGOING, game.getStatus());
+    }
+
+    @Test
+    @DisplayName("Status Sees Check, Stalemate And Finished Games")
+    public void statusOfLoadedBoards() {
+        var game = getNewGame();
+        game.setBoard(loadBoard("""
+                |k| | | | | | | |
+                | | |Q| | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | |K|
+                """));
+        game.setTeamTurn(ChessGame.TeamColor.BLACK);
+        Assertions.assertEquals(ChessGame.GameStatus.STALEMATE, game.getStatus());
+
+        game.getBoard().addPiece(getNewPosition(5, 8), getNewPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+        Assertions.assertEquals(ChessGame.GameStatus.ONGOING, game.getStatus(), "Status was not updated after the board changed");
+
+        game.getBoard().addPiece(getNewPosition(6, 1), getNewPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        Assertions.assertEquals(ChessGame.GameStatus.CHECKMATE, game.getStatus());
+        game.getBoard().addPiece(getNewPosition(6, 1), getNewPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
+        game.getBoard().addPiece(getNewPosition(7, 3), getNewPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+        Assertions.assertEquals(ChessGame.GameStatus.CHECK, game.getStatus());
+
+        game.setTeamTurn(ChessGame.TeamColor.FINISHED);
+        Assertions.assertEquals(ChessGame.GameStatus.FINISHED, game.getStatus());
+    }
+
+    @Test
+    @DisplayName("Third Repetition Is A Draw, Even After Saving")
+    public void repetition() throws InvalidMoveException {
+        var game = getNewGame();
+        for (int i = 0; i < 2; i++) {
+            game.makeMove(getNewMove(getNewPosition(1, 7), getNewPosition(3, 6), null));
+            game.makeMove(getNewMove(getNewPosition(8, 7), getNewPosition(6, 6), null));
+            game.makeMove(getNewMove(getNewPosition(3, 6), getNewPosition(1, 7), null));
+            Assertions.assertEquals(ChessGame.GameStatus.ONGOING, game.getStatus());
+            //Save and load halfway, the way the server does between moves
+            game = new Gson().fromJson(new Gson().toJson(game), ChessGame.class);
+            game.makeMove(getNewMove(getNewPosition(6, 6), getNewPosition(8, 7), null));
+        }
+        Assertions.assertEquals(2, game.repetitionCount());
+        Assertions.assertEquals(ChessGame.GameStatus.DRAW_BY_REPETITION, game.getStatus());
+
+        game.undoMove();
+        Assertions.assertEquals(ChessGame.GameStatus.ONGOING, game.getStatus());
+    }
+
+    @Test
+    @DisplayName("Pawn Moves And Captures Reset The Fifty Move Count")
+    public void fiftyMoves() throws InvalidMoveException {
+        var game = ChessGame.fromFen("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 99 1");
+        Assertions.assertEquals(99, game.getHalfmoveClock());
+
+        game.makeMove(getNewMove(getNewPosition(2, 5), getNewPosition(4, 5), null));
+        Assertions.assertEquals(0, game.getHalfmoveClock());
+        game.undoMove();
+
+        game.makeMove(getNewMove(getNewPosition(1, 7), getNewPosition(3, 6), null));
+        Assertions.assertEquals(ChessGame.GameStatus.DRAW_BY_FIFTY_MOVES, game.getStatus());
+    }
+
+    @Test
+    @DisplayName("Draw When Neither Team Can Checkmate")
+    public void insufficientMaterial() throws InvalidMoveException {
+        var game = getNewGame();
+        game.setBoard(loadBoard("""
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | | |r| | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | |B| | | | | | |
+                | | | | |K| | | |
+                """));
+        game.setTeamTurn(ChessGame.TeamColor.WHITE);
+        var takeRook = getNewMove(getNewPosition(2, 2), getNewPosition(6, 6), null);
+        Assertions.assertEquals(ChessGame.GameStatus.ONGOING, game.getStatus());
+
+        game.makeMove(takeRook);
+        Assertions.assertEquals(ChessGame.GameStatus.DRAW_BY_INSUFFICIENT_MATERIAL, game.getStatus());
+        game.undoMove();
+
+        //Bishops that all stand on the same color can never mate either
+        game.getBoard().addPiece(getNewPosition(1, 1), getNewPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
+        game.makeMove(takeRook);
+        Assertions.assertEquals(ChessGame.GameStatus.DRAW_BY_INSUFFICIENT_MATERIAL, game.getStatus());
+        game.undoMove();
+
+        game.getBoard().addPiece(getNewPosition(1, 1), null);
+        game.getBoard().addPiece(getNewPosition(1, 8), getNewPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
+        game.makeMove(takeRook);
+        Assertions.assertEquals(ChessGame.GameStatus.ONGOING, game.getStatus(), "Bishops on both colors can still mate");
+    }
+}
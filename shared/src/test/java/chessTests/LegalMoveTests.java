@@ -0,0 +1,88 @@
+package chessTests;
+
+import chess.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static passoffTests.TestFactory.*;
+
+public class LegalMoveTests {
+
+    @Test
+    @DisplayName("Pinned Piece Moves Along The Pin")
+    public void pinnedPieceMovesAlongPin() {
+        var game = getNewGame();
+        game.setBoard(loadBoard("""
+                | | | | | | | |k|
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | |b| | | | | | |
+                | | | | | | | | |
+                | | | |B| | | | |
+                | | | | |K| | | |
+                """));
+
+        ChessPosition bishopPosition = getNewPosition(2, 4);
+        var validMoves = loadMoves(bishopPosition, new int[][]{{3, 3}, {4, 2}});
+        Assertions.assertEquals(validMoves, game.validMoves(bishopPosition),
+                "ChessGame validMoves did not keep the pinned bishop on the pin line");
+    }
+
+    @Test
+    @DisplayName("King Cannot Step Back Along A Checking Line")
+    public void kingCannotRetreatAlongCheck() {
+        var game = getNewGame();
+        game.setBoard(loadBoard("""
+                |k| | | |r| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |K| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                """));
+
+        ChessPosition kingPosition = getNewPosition(4, 5);
+        var validMoves = loadMoves(kingPosition, new int[][]{{3, 4}, {4, 4}, {5, 4}, {3, 6}, {4, 6}, {5, 6}});
+        Assertions.assertEquals(validMoves, game.validMoves(kingPosition),
+                "ChessGame validMoves let the king move along the checking rook's line");
+    }
+
+    @Test
+    @DisplayName("Pieces Must Block Or Capture A Checker")
+    public void piecesMustBlockCheck() {
+        var game = getNewGame();
+        game.setBoard(loadBoard("""
+                |k| | | |r| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | |N| | | | | |
+                | | | | | | | | |
+                | | | | |K| | | |
+                """));
+
+        ChessPosition knightPosition = getNewPosition(3, 3);
+        var validMoves = loadMoves(knightPosition, new int[][]{{2, 5}, {4, 5}});
+        Assertions.assertEquals(validMoves, game.validMoves(knightPosition),
+                "ChessGame validMoves returned knight moves that do not block the check");
+    }
+
+    @Test
+    @DisplayName("A Plain Move Cannot Name A Promotion Piece")
+    public void plainMoveWithPromotionPiece() {
+        var game = getNewGame();
+        var start = new ChessBoard(game.getBoard());
+        for (var type : new ChessPiece.PieceType[]{ChessPiece.PieceType.KING, ChessPiece.PieceType.QUEEN}) {
+            Assertions.assertThrows(InvalidMoveException.class,
+                    () -> game.makeMove(getNewMove(getNewPosition(2, 5), getNewPosition(4, 5), type)),
+                    "ChessGame makeMove accepted a pawn push that named a " + type + " promotion");
+        }
+        Assertions.assertEquals(start, game.getBoard());
+        Assertions.assertEquals(ChessGame.TeamColor.WHITE, game.getTeamTurn());
+    }
+}
@@ -0,0 +1,92 @@
+package chessTests;
+
+import chess.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static passoffTests.TestFactory.*;
+
+public class MakeUnmakeTests {
+
+    @Test
+    @DisplayName("Undo Restores Capture And Promotion")
+    public void undoCaptureAndPromotion() {
+        var game = getNewGame();
+        game.setBoard(loadBoard("""
+                | | |r| | | |k| |
+                | |P| | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |K| | | |
+                """));
+        game.setTeamTurn(ChessGame.TeamColor.WHITE);
+        var before = new ChessBoard(game.getBoard());
+
+        game.doMove(getNewMove(getNewPosition(7, 2), getNewPosition(8, 3), ChessPiece.PieceType.QUEEN));
+        Assertions.assertEquals(ChessPiece.PieceType.QUEEN, game.getBoard().getPiece(getNewPosition(8, 3)).getPieceType());
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, game.getTeamTurn());
+
+        game.undoMove();
+        Assertions.assertEquals(before, game.getBoard(), "Board was not restored after undo");
+        Assertions.assertEquals(ChessGame.TeamColor.WHITE, game.getTeamTurn());
+    }
+
+    @Test
+    @DisplayName("Undo Takes Back Played Moves In Order")
+    public void undoPlayedMoves() throws InvalidMoveException {
+        var game = getNewGame();
+        var start = new ChessBoard(game.getBoard());
+
+        game.makeMove(getNewMove(getNewPosition(2, 5), getNewPosition(4, 5), null));
+        game.makeMove(getNewMove(getNewPosition(7, 4), getNewPosition(5, 4), null));
+        game.makeMove(getNewMove(getNewPosition(4, 5), getNewPosition(5, 4), null));
+        var afterCapture = new ChessBoard(game.getBoard());
+
+        game.doMove(getNewMove(getNewPosition(8, 4), getNewPosition(5, 4), null));
+        game.undoMove();
+        Assertions.assertEquals(afterCapture, game.getBoard());
+
+        game.undoMove();
+        game.undoMove();
+        game.undoMove();
+        Assertions.assertEquals(start, game.getBoard());
+        Assertions.assertEquals(ChessGame.TeamColor.WHITE, game.getTeamTurn());
+        Assertions.assertThrows(IllegalStateException.class, game::undoMove);
+    }
+
+    @Test
+    @DisplayName("Long Games Only Keep Recent Moves To Undo")
+    public void longGameUndoIsBounded() throws InvalidMoveException {
+        var game = getNewGame();
+        //Pawn moves first, so the keys from before them can be dropped
+        game.makeMove(getNewMove(getNewPosition(2, 5), getNewPosition(4, 5), null));
+        game.makeMove(getNewMove(getNewPosition(7, 5), getNewPosition(5, 5), null));
+        int[][] knightMoves = {{1, 7, 3, 6}, {8, 7, 6, 6}, {3, 6, 1, 7}, {6, 6, 8, 7}};
+        int plies = 400;
+        for (int ply = 0; ply < plies; ply++) {
+            int[] move = knightMoves[ply % 4];
+            game.makeMove(getNewMove(getNewPosition(move[0], move[1]), getNewPosition(move[2], move[3]), null));
+        }
+        Assertions.assertEquals(plies / 4, game.repetitionCount());
+
+        //Undo until the game runs out of moves to take back, checking the repetitions on the way
+        int undone = 0;
+        while (true) {
+            try {
+                game.undoMove();
+            } catch (IllegalStateException e) {
+                break;
+            }
+            undone++;
+            if ((plies - undone) % 4 == 0) {
+                Assertions.assertEquals((plies - undone) / 4, game.repetitionCount());
+            }
+        }
+        Assertions.assertTrue(undone >= 64 && undone < plies, "Game kept " + undone + " moves to undo");
+        Assertions.assertEquals(game.getBoard(), game.snapshot().toBoard());
+    }
+}
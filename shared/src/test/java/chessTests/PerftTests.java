@@ -0,0 +1,114 @@
+package chessTests;
+
+import chess.ChessGame;
+import chess.engine.OffHeapTable;
+import chess.perft.Perft;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static passoffTests.TestFactory.*;
+
+public class PerftTests {
+
+    @Test
+    @DisplayName("Starting Position Node Counts")
+    public void startingPosition() {
+        var game = getNewGame();
+        Assertions.assertEquals(20, Perft.perft(game, 1));
+        Assertions.assertEquals(400, Perft.perft(game, 2));
+        Assertions.assertEquals(8902, Perft.perft(game, 3));
+        Assertions.assertEquals(197281, Perft.perft(game, 4));
+        Assertions.assertEquals(4865609, Perft.perft(game, 5));
+        Assertions.assertEquals(getNewGame().getBoard(), game.getBoard(), "Perft did not restore the board");
+    }
+
+    @Test
+    @DisplayName("Rook Endgame Node Counts")
+    public void rookEndgame() {
+        var game = getNewGame();
+        game.setBoard(loadBoard("""
+                | | | | | | | | |
+                | | |p| | | | | |
+                | | | |p| | | | |
+                |K|P| | | | | |r|
+                | |R| | | |p| |k|
+                | | | | | | | | |
+                | | | | |P| |P| |
+                | | | | | | | | |
+                """));
+        game.setTeamTurn(ChessGame.TeamColor.WHITE);
+        Assertions.assertEquals(14, Perft.perft(game, 1));
+        Assertions.assertEquals(191, Perft.perft(game, 2));
+        Assertions.assertEquals(2812, Perft.perft(game, 3));
+        Assertions.assertEquals(43238, Perft.perft(game, 4));
+        Assertions.assertEquals(674624, Perft.perft(game, 5));
+    }
+
+    @Test
+    @DisplayName("Castling And En Passant Node Counts")
+    public void kiwipete() {
+        var game = getNewGame();
+        game.setBoard(loadBoard("""
+                |r| | | |k| | |r|
+                |p| |p|p|q|p|b| |
+                |b|n| | |p|n|p| |
+                | | | |P|N| | | |
+                | |p| | |P| | | |
+                | | |N| | |Q| |p|
+                |P|P|P|B|B|P|P|P|
+                |R| | | |K| | |R|
+                """));
+        game.setTeamTurn(ChessGame.TeamColor.WHITE);
+        Assertions.assertEquals(48, Perft.perft(game, 1));
+        Assertions.assertEquals(2039, Perft.perft(game, 2));
+        Assertions.assertEquals(97862, Perft.perft(game, 3));
+        Assertions.assertEquals(4085603, Perft.perft(game, 4));
+    }
+
+    @Test
+    @DisplayName("Promotions And Pins Node Counts")
+    public void promotionsAndPins() {
+        var game = ChessGame.fromFen("r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1");
+        Assertions.assertEquals(6, Perft.perft(game, 1));
+        Assertions.assertEquals(264, Perft.perft(game, 2));
+        Assertions.assertEquals(9467, Perft.perft(game, 3));
+        Assertions.assertEquals(422333, Perft.perft(game, 4));
+    }
+
+    @Test
+    @DisplayName("Discovered Check Node Counts")
+    public void discoveredChecks() {
+        var game = ChessGame.fromFen("rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8");
+        Assertions.assertEquals(44, Perft.perft(game, 1));
+        Assertions.assertEquals(1486, Perft.perft(game, 2));
+        Assertions.assertEquals(62379, Perft.perft(game, 3));
+    }
+
+    @Test
+    @DisplayName("Parallel Divide Matches Serial Divide")
+    public void parallelDivide() {
+        var serial = Perft.divide(getNewGame(), 3);
+        var pool = new ForkJoinPool(4);
+        try {
+            var parallel = Perft.divide(getNewGame(), 3, pool);
+            Assertions.assertEquals(serial.divide(), parallel.divide());
+            Assertions.assertEquals(8902, parallel.nodes());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Cached Node Counts Match")
+    public void cached() {
+        var table = new OffHeapTable(1 << 20);
+        var game = ChessGame.fromFen("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        Assertions.assertEquals(97862, Perft.perft(game, 3, table));
+        Assertions.assertEquals(4085603, Perft.perft(game, 4, table));
+        Assertions.assertEquals(4865609, Perft.perft(getNewGame(), 5, table));
+        Assertions.assertTrue(table.stats().hits() > 0);
+    }
+}
@@ -0,0 +1,169 @@
+package chessTests;
+
+import chess.*;
+import chess.pgn.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static passoffTests.TestFactory.*;
+
+public class PgnTests {
+
+    private static final String OPERA_GAME = """
+            [Event "Paris"]
+            [White "Paul Morphy"]
+            [Black "Duke Karl / Count Isouard"]
+            [Result "1-0"]
+
+            1. e4 e5 2. Nf3 d6 3. d4 Bg4 4. dxe5 Bxf3 5. Qxf3 dxe5 6. Bc4 Nf6 7. Qb3 Qe7
+            8. Nc3 c6 9. Bg5 b5 10. Nxb5 cxb5 11. Bxb5+ Nbd7 12. O-O-O Rd8 13. Rxd7 Rxd7
+            14. Rd1 Qe6 15. Bxd7+ Nxd7 16. Qb8+ Nxb8 17. Rd8# 1-0
+
+            """;
+
+    @Test
+    @DisplayName("SAN Reads And Writes Special Moves")
+    public void san() throws InvalidMoveException {
+        var scratch = new MoveList();
+        var game = ChessGame.fromFen("4k3/1P6/8/3pP3/8/8/8/4K2R w K d6 0 2");
+
+        int enPassant = San.parse(game, "exd6", scratch);
+        Assertions.assertEquals(getNewMove(getNewPosition(5, 5), getNewPosition(6, 4), null), Move.toChessMove(enPassant));
+        Assertions.assertEquals("exd6", San.format(game, enPassant, scratch));
+
+        int promotion = San.parse(game, "b8=Q+", scratch);
+        Assertions.assertEquals(ChessPiece.PieceType.QUEEN, Move.promotion(promotion));
+        Assertions.assertEquals("b8=Q+", San.format(game, promotion, scratch));
+        Assertions.assertEquals(promotion, San.parse(game, "b8Q", scratch));
+
+        int castle = San.parse(game, "O-O", scratch);
+        Assertions.assertEquals("O-O", San.format(game, castle, scratch));
+        Assertions.assertEquals("4k3/1P6/8/3pP3/8/8/8/4K2R w K d6 0 2", game.toFen(), "Formatting a move changed the game");
+
+        Assertions.assertThrows(InvalidMoveException.class, () -> San.parse(game, "O-O-O", scratch));
+        Assertions.assertThrows(InvalidMoveException.class, () -> San.parse(game, "Nf3", scratch));
+        Assertions.assertThrows(InvalidMoveException.class, () -> San.parse(game, "e9", scratch));
+
+        var knights = ChessGame.fromFen("4k3/8/8/8/8/8/8/1N2KN2 w - - 0 1");
+        Assertions.assertThrows(InvalidMoveException.class, () -> San.parse(knights, "Nd2", scratch));
+        Assertions.assertEquals("Nbd2", San.format(knights, San.parse(knights, "Nbd2", scratch), scratch));
+    }
+
+    @Test
+    @DisplayName("Reads Games With Comments And Variations")
+    public void read() throws Exception {
+        var pgn = OPERA_GAME + """
+                [Event "Annotated"]
+                [FEN "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1"]
+
+                1... c5 {Sicilian} 2.Nf3 (2. Nc3 Nc6 (2... d6) 3. f4) 2... d6! $1
+                ; a line comment
+                3. d4 *
+                """;
+        try (var reader = new PgnReader(new StringReader(pgn))) {
+            PgnGame opera = reader.next();
+            Assertions.assertEquals("Paul Morphy", opera.getTag("White"));
+            Assertions.assertEquals("1-0", opera.getResult());
+            Assertions.assertEquals(33, opera.getMoveCount());
+            Assertions.assertTrue(opera.replay().isInCheckmate(ChessGame.TeamColor.BLACK));
+
+            PgnGame annotated = reader.next();
+            Assertions.assertEquals("*", annotated.getResult());
+            Assertions.assertEquals(4, annotated.getMoveCount());
+            Assertions.assertEquals("rnbqkbnr/pp2pppp/3p4/2p5/3PP3/5N2/PPP2PPP/RNBQKB1R b KQkq - 0 3", annotated.replay().toFen());
+
+            Assertions.assertNull(reader.next());
+        }
+    }
+
+    @Test
+    @DisplayName("Bad Games Are Skipped")
+    public void badGame() throws Exception {
+        var pgn = """
+                [Event "Bad"]
+
+                1. e4 e5 2. Ke3 Nc6 1-0
+
+                """ + OPERA_GAME;
+        try (var reader = new PgnReader(new StringReader(pgn))) {
+            var error = Assertions.assertThrows(PgnException.class, reader::next);
+            Assertions.assertEquals(3, error.getLine());
+            Assertions.assertEquals("Paul Morphy", reader.next().getTag("White"));
+            Assertions.assertNull(reader.next());
+        }
+    }
+
+    @Test
+    @DisplayName("Written Games Read Back The Same")
+    public void writeAndRead() throws Exception {
+        PgnGame opera;
+        try (var reader = new PgnReader(new StringReader(OPERA_GAME))) {
+            opera = reader.next();
+        }
+        var text = new StringWriter();
+        new PgnWriter(text).write(opera);
+        Assertions.assertEquals(OPERA_GAME, text.toString());
+
+        var tags = new LinkedHashMap<String, String>();
+        tags.put("FEN", "4k3/1P6/8/3pP3/8/8/8/4K2R b K - 0 2");
+        var scratch = new MoveList();
+        var start = ChessGame.fromFen(tags.get("FEN"));
+        int kingMove = San.parse(start, "Kd7", scratch);
+        start.doMove(kingMove);
+        int promotion = San.parse(start, "b8=N+", scratch);
+        text = new StringWriter();
+        new PgnWriter(text).write(new PgnGame(tags, new int[] {kingMove, promotion}, "*"));
+        Assertions.assertTrue(text.toString().contains("2... Kd7 3. b8=N+ *"), text.toString());
+    }
+
+    @Test
+    @DisplayName("Parallel Reading Finds Every Game")
+    public void parallel(@TempDir Path directory) throws Exception {
+        var file = directory.resolve("games.pgn");
+        int copies = 10000;
+        try (var out = new BufferedWriter(Files.newBufferedWriter(file))) {
+            for (int i = 0; i < copies; i++) {
+                out.write(OPERA_GAME);
+            }
+        }
+        Assertions.assertTrue(Files.size(file) > 2L << 20, "Test file is too small to be split");
+
+        var mates = new AtomicLong();
+        var pool = new ForkJoinPool(4);
+        PgnReader.Result result;
+        try {
+            result = PgnReader.readParallel(file, pool, game -> {
+                if (game.replay().isInCheckmate(ChessGame.TeamColor.BLACK)) {
+                    mates.incrementAndGet();
+                }
+            });
+        } finally {
+            pool.shutdown();
+        }
+        Assertions.assertEquals(copies, result.games());
+        Assertions.assertEquals(0, result.skipped());
+        Assertions.assertEquals(copies * 33L, result.moves());
+        Assertions.assertEquals(copies, mates.get());
+
+        List<PgnGame> serial = new ArrayList<>();
+        try (var reader = new PgnReader(Files.newInputStream(file))) {
+            for (PgnGame game = reader.next(); game != null; game = reader.next()) {
+                serial.add(game);
+            }
+        }
+        Assertions.assertEquals(copies, serial.size());
+    }
+}
@@ -0,0 +1,67 @@
+package chessTests;
+
+import chess.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static passoffTests.TestFactory.*;
+
+public class PositionKeyTests {
+
+    @Test
+    @DisplayName("Transposed Move Orders Share A Key")
+    public void transposition() throws InvalidMoveException {
+        var first = getNewGame();
+        first.makeMove(getNewMove(getNewPosition(1, 7), getNewPosition(3, 6), null));
+        first.makeMove(getNewMove(getNewPosition(8, 7), getNewPosition(6, 6), null));
+        first.makeMove(getNewMove(getNewPosition(1, 2), getNewPosition(3, 3), null));
+
+        var second = getNewGame();
+        second.makeMove(getNewMove(getNewPosition(1, 2), getNewPosition(3, 3), null));
+        second.makeMove(getNewMove(getNewPosition(8, 7), getNewPosition(6, 6), null));
+        second.makeMove(getNewMove(getNewPosition(1, 7), getNewPosition(3, 6), null));
+
+        Assertions.assertEquals(first.positionKey(), second.positionKey());
+        Assertions.assertEquals(first, second);
+        Assertions.assertEquals(first.hashCode(), second.hashCode());
+    }
+
+    @Test
+    @DisplayName("Key Follows Moves, Undo And Turn")
+    public void keyUpdates() {
+        var game = getNewGame();
+        long start = game.positionKey();
+
+        game.doMove(getNewMove(getNewPosition(2, 5), getNewPosition(4, 5), null));
+        Assertions.assertNotEquals(start, game.positionKey());
+        game.undoMove();
+        Assertions.assertEquals(start, game.positionKey());
+
+        game.setTeamTurn(ChessGame.TeamColor.BLACK);
+        Assertions.assertNotEquals(start, game.positionKey(), "Side to move is not part of the key");
+    }
+
+    @Test
+    @DisplayName("Key Does Not Depend On How The Board Was Built")
+    public void keyFromScratch() {
+        var built = getNewBoard();
+        built.addPiece(getNewPosition(1, 5), getNewPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        built.addPiece(getNewPosition(4, 4), getNewPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
+        built.addPiece(getNewPosition(8, 5), getNewPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+        built.addPiece(getNewPosition(4, 4), getNewPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+
+        var loaded = loadBoard("""
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | |R| | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |K| | | |
+                """);
+        Assertions.assertEquals(loaded.hashCode(), built.hashCode());
+        Assertions.assertEquals(loaded, built);
+    }
+}
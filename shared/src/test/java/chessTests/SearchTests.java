@@ -0,0 +1,176 @@
+package chessTests;
+
+import chess.*;
+import chess.engine.LockFreeTable;
+import chess.engine.OffHeapTable;
+import chess.engine.ParallelSearch;
+import chess.engine.Search;
+import chess.engine.TableEntry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static passoffTests.TestFactory.*;
+
+public class SearchTests {
+
+    @Test
+    @DisplayName("Finds Mate In One")
+    public void mateInOne() {
+        var game = ChessGame.fromFen("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+        var result = new Search(game, Search.Limits.depth(4)).run();
+
+        Assertions.assertEquals(getNewMove(getNewPosition(1, 1), getNewPosition(8, 1), null), result.bestChessMove());
+        Assertions.assertTrue(result.isMate());
+        Assertions.assertEquals(Search.MATE - 1, result.score());
+        Assertions.assertEquals("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1", game.toFen(), "Search changed the game it was given");
+    }
+
+    @Test
+    @DisplayName("Takes A Free Queen And Avoids Losing One")
+    public void material() {
+        var take = new Search(ChessGame.fromFen("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1"), Search.Limits.depth(3)).run();
+        Assertions.assertEquals(getNewMove(getNewPosition(2, 4), getNewPosition(5, 4), null), take.bestChessMove());
+        Assertions.assertTrue(take.score() > 300);
+
+        //The queen is attacked by a pawn and has to move
+        var escape = new Search(ChessGame.fromFen("4k3/8/8/8/2p5/3Q4/8/4K3 w - - 0 1"), Search.Limits.depth(2)).run();
+        Assertions.assertEquals(new ChessPosition(3, 4), escape.bestChessMove().getStartPosition());
+    }
+
+    @Test
+    @DisplayName("Stops Within Its Node And Time Budgets")
+    public void budgets() {
+        var byNodes = new Search(getNewGame(), Search.Limits.nodes(5000)).run();
+        Assertions.assertTrue(byNodes.nodes() <= 5000, "Searched " + byNodes.nodes() + " nodes");
+        Assertions.assertTrue(getNewGame().validMoves(byNodes.bestChessMove().getStartPosition()).contains(byNodes.bestChessMove()));
+
+        long start = System.nanoTime();
+        var byTime = new Search(getNewGame(), Search.Limits.time(200)).run();
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        Assertions.assertTrue(millis < 1000, "Search ran for " + millis + " ms");
+        Assertions.assertTrue(byTime.depth() >= 1);
+        Assertions.assertNotNull(byTime.bestChessMove());
+    }
+
+    @Test
+    @DisplayName("No Move In Checkmate Or Stalemate")
+    public void noMoves() {
+        var mated = new Search(ChessGame.fromFen("R5k1/5ppp/8/8/8/8/8/6K1 b - - 1 1"), Search.Limits.depth(3)).run();
+        Assertions.assertEquals(Move.NONE, mated.bestMove());
+        Assertions.assertEquals(-Search.MATE, mated.score());
+
+        var stalemate = new Search(ChessGame.fromFen("7k/5Q2/6K1/8/8/8/8/8 b - - 0 1"), Search.Limits.depth(3)).run();
+        Assertions.assertEquals(Move.NONE, stalemate.bestMove());
+        Assertions.assertEquals(0, stalemate.score());
+    }
+
+    @Test
+    @DisplayName("Lock Free Table Only Returns Entries For Their Own Key")
+    public void lockFreeTable() {
+        var table = new LockFreeTable(1 << 10);
+        table.store(0x1234_5678_9ABCL, 42L);
+        Assertions.assertEquals(42L, table.probe(0x1234_5678_9ABCL));
+        //Same slot, different position
+        Assertions.assertEquals(0L, table.probe(0x1234_5678_9ABCL + (1L << 40)));
+        table.clear();
+        Assertions.assertEquals(0L, table.probe(0x1234_5678_9ABCL));
+    }
+
+    @Test
+    @DisplayName("Parallel Search Agrees With A Single Search")
+    public void parallel() {
+        var game = ChessGame.fromFen("r1bqkb1r/pppp1ppp/2n2n2/4p2Q/2B1P3/8/PPPP1PPP/RNB1K1NR w KQkq - 4 4");
+        var pool = new ForkJoinPool(4);
+        Search.Result result;
+        try {
+            result = new ParallelSearch(game, Search.Limits.depth(4), new LockFreeTable(1 << 20), pool).run();
+        } finally {
+            pool.shutdown();
+        }
+        var single = new Search(game, Search.Limits.depth(4)).run();
+        Assertions.assertEquals(getNewMove(getNewPosition(5, 8), getNewPosition(7, 6), null), result.bestChessMove());
+        Assertions.assertEquals(Search.MATE - 1, result.score());
+        Assertions.assertEquals(single.bestMove(), result.bestMove());
+        Assertions.assertEquals(single.score(), result.score());
+    }
+
+    @Test
+    @DisplayName("Off Heap Table Keeps Deep And Recent Entries")
+    public void offHeapTable() {
+        var table = new OffHeapTable(16 << 10);
+        Assertions.assertEquals(16 << 10, table.sizeBytes());
+        //Keys differing above the low byte share a bucket of four
+        long key = 0x1234_5678_9A00L;
+        for (int i = 0; i < 4; i++) {
+            table.store(key + ((long) i << 8), TableEntry.packCount(10 - i, i));
+        }
+        Assertions.assertEquals(2, TableEntry.count(table.probe(key + (2L << 8))));
+        Assertions.assertEquals(0L, table.probe(key + (4L << 8)));
+
+        //A full bucket gives up its shallowest entry
+        table.store(key + (4L << 8), TableEntry.packCount(8, 4));
+        Assertions.assertEquals(0L, table.probe(key + (3L << 8)));
+        Assertions.assertEquals(4, TableEntry.count(table.probe(key + (4L << 8))));
+
+        //Older entries are replaced before a shallower one from the current search
+        table.newSearch();
+        table.store(key + (5L << 8), TableEntry.packCount(7, 5));
+        table.store(key + (6L << 8), TableEntry.packCount(1, 6));
+        Assertions.assertEquals(0L, table.probe(key + (2L << 8)));
+        Assertions.assertEquals(5, TableEntry.count(table.probe(key + (5L << 8))));
+        Assertions.assertEquals(0L, table.probe(key + (4L << 8)));
+        Assertions.assertEquals(6, TableEntry.count(table.probe(key + (6L << 8))));
+
+        var stats = table.stats();
+        Assertions.assertEquals(3, stats.overwrites());
+        Assertions.assertEquals(8, stats.probes());
+        Assertions.assertEquals(4, stats.hits());
+        Assertions.assertEquals(4, stats.collisions());
+        table.clear();
+        Assertions.assertEquals(0L, table.probe(key));
+        Assertions.assertEquals(1, table.stats().probes());
+    }
+
+    @Test
+    @DisplayName("Repeated Analysis Reuses The Table")
+    public void repeatedAnalysis() {
+        var game = ChessGame.fromFen("r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w KQkq - 2 3");
+        var table = new OffHeapTable(1 << 20);
+        var first = new Search(game, Search.Limits.depth(4), table).run();
+        var second = new Search(game, Search.Limits.depth(4), table).run();
+        Assertions.assertEquals(first.bestMove(), second.bestMove());
+        Assertions.assertEquals(first.score(), second.score());
+        Assertions.assertTrue(second.nodes() < first.nodes(), "The second search did not use the first one's results");
+        Assertions.assertTrue(table.stats().hits() > 0);
+    }
+
+    @Test
+    @DisplayName("Running Evaluation Follows Castling, En Passant And Promotion")
+    public void runningEvaluation() {
+        //Searches check their running evaluation against a full scan at every leaf while assertions are on
+        for (String fen : new String[] {
+                "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+                "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1"}) {
+            var result = new Search(ChessGame.fromFen(fen), Search.Limits.depth(3)).run();
+            Assertions.assertNotEquals(Move.NONE, result.bestMove());
+        }
+    }
+
+    @Test
+    @DisplayName("Quiescence Sees The Recapture And Nodes Are Reported Per Depth")
+    public void quiescence() {
+        //At depth 1 the pawn on e5 looks free, but it is defended
+        var result = new Search(ChessGame.fromFen("4k3/8/3p4/4p3/8/8/8/4QK2 w - - 0 1"), Search.Limits.depth(1)).run();
+        Assertions.assertNotEquals(getNewMove(getNewPosition(1, 5), getNewPosition(5, 5), null), result.bestChessMove());
+        Assertions.assertTrue(result.quiescenceNodes() > 0);
+
+        var deeper = new Search(getNewGame(), Search.Limits.depth(4)).run();
+        Assertions.assertEquals(4, deeper.depthNodes().length);
+        Assertions.assertEquals(deeper.nodes(), deeper.nodesToDepth(4));
+        Assertions.assertTrue(deeper.branchingFactor() > 1);
+    }
+}
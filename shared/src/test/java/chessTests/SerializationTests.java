@@ -0,0 +1,103 @@
+package chessTests;
+
+import chess.*;
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static passoffTests.TestFactory.*;
+
+public class SerializationTests {
+
+    @Test
+    @DisplayName("Game Round Trips Through Json")
+    public void roundTrip() throws InvalidMoveException {
+        var game = getNewGame();
+        game.makeMove(getNewMove(getNewPosition(2, 5), getNewPosition(4, 5), null));
+
+        var json = new Gson().toJson(game);
+        var loaded = new Gson().fromJson(json, ChessGame.class);
+
+        Assertions.assertEquals(game, loaded);
+        Assertions.assertEquals(game.positionKey(), loaded.positionKey());
+        Assertions.assertTrue(json.length() < 128, "Board json is larger than expected: " + json);
+    }
+
+    @Test
+    @DisplayName("Castling And En Passant State Round Trips")
+    public void gameStateRoundTrip() throws InvalidMoveException {
+        var game = getNewGame();
+        game.makeMove(getNewMove(getNewPosition(2, 5), getNewPosition(4, 5), null));
+        game.makeMove(getNewMove(getNewPosition(7, 1), getNewPosition(6, 1), null));
+        game.makeMove(getNewMove(getNewPosition(4, 5), getNewPosition(5, 5), null));
+        game.makeMove(getNewMove(getNewPosition(7, 4), getNewPosition(5, 4), null));
+        game.makeMove(getNewMove(getNewPosition(1, 5), getNewPosition(2, 5), null));
+        game.makeMove(getNewMove(getNewPosition(7, 6), getNewPosition(5, 6), null));
+
+        var loaded = new Gson().fromJson(new Gson().toJson(game), ChessGame.class);
+
+        Assertions.assertEquals(game, loaded);
+        Assertions.assertEquals(game.positionKey(), loaded.positionKey());
+        var enPassant = getNewMove(getNewPosition(5, 5), getNewPosition(6, 6), null);
+        Assertions.assertTrue(loaded.validMoves(getNewPosition(5, 5)).contains(enPassant),
+                "Loaded game lost the en passant square");
+    }
+
+    @Test
+    @DisplayName("Games Without Kings Round Trip")
+    public void kinglessRoundTrip() {
+        var game = getNewGame();
+        game.setBoard(loadBoard("""
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                |R| | | | | | | |
+                """));
+        var loaded = new Gson().fromJson(new Gson().toJson(game), ChessGame.class);
+        Assertions.assertEquals(game, loaded);
+        Assertions.assertEquals(game.getBoard(), loaded.getBoard());
+
+        var empty = getNewGame();
+        empty.setBoard(new ChessBoard());
+        Assertions.assertEquals(empty.getBoard(), new Gson().fromJson(new Gson().toJson(empty), ChessGame.class).getBoard());
+    }
+
+    @Test
+    @DisplayName("Loaded Pieces Are Shared Instances")
+    public void sharedPieces() {
+        var json = new Gson().toJson(getNewGame());
+        var loaded = new Gson().fromJson(json, ChessGame.class);
+
+        Assertions.assertSame(ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN),
+                loaded.getBoard().getPiece(getNewPosition(8, 4)));
+    }
+
+    @Test
+    @DisplayName("Reads Boards Saved As Piece Objects")
+    public void legacyBoard() {
+        var empty = "[null,null,null,null,null,null,null,null]";
+        var json = "{\"board\":{\"board\":[[null,null,null,null,"
+                + "{\"pieceColor\":\"BLACK\",\"type\":\"KING\",\"validMoves\":[],\"checkMoves\":[]},null,null,null],"
+                + String.join(",", empty, empty, empty, empty, empty, empty)
+                + ",[null,null,null,null,{\"pieceColor\":\"WHITE\",\"type\":\"KING\"},null,null,null]]},\"turn\":\"BLACK\"}";
+
+        var loaded = new Gson().fromJson(json, ChessGame.class);
+
+        Assertions.assertEquals(loadBoard("""
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |K| | | |
+                """), loaded.getBoard());
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, loaded.getTeamTurn());
+    }
+}
@@ -0,0 +1,98 @@
+package chessTests;
+
+import chess.*;
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import webSocketMessages.serverMessages.LoadGameMessage;
+import webSocketMessages.serverMessages.ServerMessage;
+
+import static passoffTests.TestFactory.*;
+
+public class SnapshotTests {
+
+    @Test
+    @DisplayName("Snapshots Do Not Change With The Game")
+    public void snapshotsAreImmutable() throws InvalidMoveException {
+        var game = getNewGame();
+        var before = game.snapshot();
+
+        game.makeMove(getNewMove(getNewPosition(2, 5), getNewPosition(4, 5), null));
+        var after = game.snapshot();
+
+        Assertions.assertNotNull(before.getPiece(getNewPosition(2, 5)));
+        Assertions.assertNull(before.getPiece(getNewPosition(4, 5)));
+        Assertions.assertNull(after.getPiece(getNewPosition(2, 5)));
+        Assertions.assertEquals(ChessPiece.PieceType.PAWN, after.getPiece(getNewPosition(4, 5)).getPieceType());
+        Assertions.assertEquals(ChessGame.TeamColor.WHITE, before.getTeamTurn());
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, after.getTeamTurn());
+        Assertions.assertEquals(before.getVersion() + 1, after.getVersion());
+        Assertions.assertEquals(game.positionKey(), after.positionKey());
+
+        //Search moves are working state and are not published
+        game.doMove(getNewMove(getNewPosition(7, 5), getNewPosition(5, 5), null));
+        Assertions.assertSame(after, game.snapshot());
+    }
+
+    @Test
+    @DisplayName("Undoing A Made Move Publishes The Earlier Position")
+    public void undoRepublishes() throws InvalidMoveException {
+        var game = getNewGame();
+        var start = game.snapshot();
+        game.makeMove(getNewMove(getNewPosition(2, 5), getNewPosition(4, 5), null));
+        var afterMove = game.snapshot();
+
+        //Taking back a search move leaves the published position alone
+        game.doMove(getNewMove(getNewPosition(7, 5), getNewPosition(5, 5), null));
+        game.undoMove();
+        Assertions.assertSame(afterMove, game.snapshot());
+
+        game.undoMove();
+        var afterUndo = game.snapshot();
+        Assertions.assertEquals(start.toFen(), afterUndo.toFen());
+        Assertions.assertEquals(ChessGame.TeamColor.WHITE, afterUndo.getTeamTurn());
+        Assertions.assertEquals(afterMove.getVersion() + 1, afterUndo.getVersion());
+        Assertions.assertEquals(game, afterUndo.toGame());
+    }
+
+    @Test
+    @DisplayName("Snapshot Matches The Game After Special Moves")
+    public void snapshotAfterSpecialMoves() throws InvalidMoveException {
+        var game = getNewGame();
+        game.setBoard(loadBoard("""
+                |r| | | |k| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | |p| | | | |
+                | | | | | | | | |
+                | | | | |P| | | |
+                |R| | | |K| | |R|
+                """));
+        game.setTeamTurn(ChessGame.TeamColor.WHITE);
+        game.makeMove(getNewMove(getNewPosition(2, 5), getNewPosition(4, 5), null));
+        game.makeMove(getNewMove(getNewPosition(4, 4), getNewPosition(3, 5), null));
+        game.makeMove(getNewMove(getNewPosition(1, 5), getNewPosition(1, 7), null));
+        game.makeMove(getNewMove(getNewPosition(8, 5), getNewPosition(8, 3), null));
+
+        var snapshot = game.snapshot();
+        Assertions.assertEquals(game, snapshot.toGame());
+        Assertions.assertEquals(game.getBoard(), snapshot.toBoard());
+        Assertions.assertEquals(new Gson().toJson(game), new Gson().toJson(snapshot));
+    }
+
+    @Test
+    @DisplayName("Load Game Messages Carry The Snapshot")
+    public void loadGameMessage() throws InvalidMoveException {
+        var game = getNewGame();
+        game.makeMove(getNewMove(getNewPosition(1, 2), getNewPosition(3, 3), null));
+        var message = new LoadGameMessage(ServerMessage.ServerMessageType.LOAD_GAME);
+        message.setGame(game);
+
+        var received = new Gson().fromJson(new Gson().toJson(message), LoadGameMessage.class);
+
+        Assertions.assertEquals(game, received.getGame());
+        Assertions.assertEquals(game.getStatus(), received.getGame().getStatus());
+    }
+}
@@ -0,0 +1,68 @@
+package chessTests;
+
+import chess.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+
+public class TablebaseTests {
+
+    @Test
+    @DisplayName("Generated Tables Have The Known Longest Mates And Probe Correctly")
+    public void threePieces(@TempDir Path directory) throws IOException {
+        var pool = new ForkJoinPool(4);
+        TablebaseGenerator.Result kpk;
+        TablebaseGenerator.Result kqk;
+        TablebaseGenerator.Result krk;
+        try {
+            var generator = new TablebaseGenerator(pool);
+            //KPK builds KQK and KRK along the way, so writing them after is quick
+            kpk = generator.write("KPK", directory.resolve("KPK.tb"));
+            kqk = generator.write("KQK", directory.resolve("KQK.tb"));
+            krk = generator.write("KRK", directory.resolve("KRK.tb"));
+        } finally {
+            pool.shutdown();
+        }
+        //Mate in 10, 16 and 28 moves, plus one ply when the losing team is to move
+        Assertions.assertEquals(20, kqk.longestMate());
+        Assertions.assertEquals(32, krk.longestMate());
+        Assertions.assertEquals(56, kpk.longestMate());
+
+        var queen = Tablebase.open(directory.resolve("KQK.tb"));
+        Assertions.assertEquals("KQK", queen.material());
+        var mateInOne = ChessGame.fromFen("k7/8/1QK5/8/8/8/8/8 w - - 0 1");
+        Assertions.assertEquals(Tablebase.WIN, queen.result(mateInOne));
+        Assertions.assertEquals(1, queen.pliesToMate(mateInOne));
+        var mated = ChessGame.fromFen("k7/1Q6/2K5/8/8/8/8/8 b - - 0 1");
+        Assertions.assertEquals(Tablebase.LOSS, queen.result(mated));
+        Assertions.assertEquals(0, queen.pliesToMate(mated));
+        var stalemate = ChessGame.fromFen("k7/2Q5/1K6/8/8/8/8/8 b - - 0 1");
+        Assertions.assertEquals(Tablebase.DRAW, queen.result(stalemate));
+        Assertions.assertEquals(-1, queen.pliesToMate(stalemate));
+
+        var pawn = Tablebase.open(directory.resolve("KPK.tb"));
+        Assertions.assertEquals(Tablebase.LOSS, pawn.result(ChessGame.fromFen("4k3/8/4K3/4P3/8/8/8/8 b - - 0 1")));
+        Assertions.assertEquals(Tablebase.WIN, pawn.result(ChessGame.fromFen("4k3/8/4K3/4P3/8/8/8/8 w - - 0 1")));
+        //The wrong rook pawn and a pawn the black king takes
+        Assertions.assertEquals(Tablebase.DRAW, pawn.result(ChessGame.fromFen("k7/8/K7/P7/8/8/8/8 w - - 0 1")));
+        Assertions.assertEquals(Tablebase.DRAW, pawn.result(ChessGame.fromFen("8/8/8/8/8/8/kP6/7K b - - 0 1")));
+
+        Assertions.assertFalse(pawn.covers(new ChessGame()));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> queen.result(ChessGame.fromFen("k7/8/1RK5/8/8/8/8/8 w - - 0 1")));
+        Path truncated = directory.resolve("truncated.tb");
+        Files.write(truncated, Files.readAllBytes(directory.resolve("KRK.tb")), StandardOpenOption.CREATE_NEW);
+        Files.write(truncated, new byte[1], StandardOpenOption.APPEND);
+        Assertions.assertThrows(IOException.class, () -> Tablebase.open(truncated));
+
+        //En passant cannot be stored, so pawns on both sides are refused
+        var generator = new TablebaseGenerator(ForkJoinPool.commonPool());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> generator.write("KPKP", directory.resolve("KPKP.tb")));
+    }
+}